@@ -0,0 +1,62 @@
+package com.todolist.todoapp.benchmark;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic task data shared by the in-memory benchmarks
+final class Fixtures {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private Fixtures() {}
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setUsername("user" + i);
+            user.setPassword("{noop}password");
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<Task> tasks(int count, List<User> users) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(task(i, users));
+        }
+        return tasks;
+    }
+
+    // Every fourth task has no due date, every third is completed
+    static Task task(int i, List<User> users) {
+        Task task = new Task();
+        task.setTitle("Task " + i + " quarterly report review");
+        task.setDescription("Description for task " + i + " with enough text to look like a real note");
+        task.setDueDate(i % 4 == 0 ? null : BASE.plusHours(i));
+        task.setCompleted(i % 3 == 0);
+        task.setPriority(i % 5);
+        task.setOwner(users.get(i % users.size()));
+        task.setAssignee(users.get((i * 7 + 1) % users.size()));
+        task.setUpdatedAt(BASE);
+        return task;
+    }
+
+    static List<TaskDTO> dtos(List<Task> tasks) {
+        List<TaskDTO> dtos = new ArrayList<>(tasks.size());
+        long id = 1;
+        for (Task task : tasks) {
+            task.setId(id);
+            task.setChangeVersion(id++);
+            dtos.add(new TaskDTO(task));
+        }
+        return dtos;
+    }
+}
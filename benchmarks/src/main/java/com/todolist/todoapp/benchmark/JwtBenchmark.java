@@ -0,0 +1,49 @@
+package com.todolist.todoapp.benchmark;
+
+import com.todolist.todoapp.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Token issue and the three ways a token is checked: cached verify (steady state per request),
+// uncached verify (first request with a token) and a full parse for the subject.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(10_000);
+        uncached = new JwtUtil(0);
+        token = jwtUtil.generateToken("benchmark-user");
+        jwtUtil.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return jwtUtil.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        return uncached.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtUtil.getUsernameFromToken(token);
+    }
+}
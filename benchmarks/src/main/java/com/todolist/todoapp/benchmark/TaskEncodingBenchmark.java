@@ -0,0 +1,70 @@
+package com.todolist.todoapp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.todolist.todoapp.TodoappApplication;
+import com.todolist.todoapp.dto.TaskDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// CPU and bytes on the wire for a 10k-task listing in each format the API can send:
+// json-bean is the reflective bean serializer TaskDTO used before TaskDTOSerializer, json and smile
+// are what the app writes now; gzip=true adds the compression Tomcat applies to large responses.
+// Response sizes are printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskEncodingBenchmark {
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {}
+
+    @Param({"json-bean", "json", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"10000"})
+    private int size;
+
+    private List<TaskDTO> tasks;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() throws Exception {
+        tasks = Fixtures.dtos(Fixtures.tasks(size, Fixtures.users(100)));
+        ObjectMapper mapper = new TodoappApplication().objectMapper();
+        ObjectMapper formatMapper = switch (format) {
+            case "json-bean" -> mapper.copy().addMixIn(TaskDTO.class, BeanSerialized.class);
+            case "json" -> mapper;
+            case "smile" -> mapper.copyWith(new SmileFactory());
+            default -> throw new IllegalArgumentException(format);
+        };
+        writer = formatMapper.writerFor(formatMapper.getTypeFactory().constructCollectionType(List.class, TaskDTO.class));
+        System.out.printf("%n%s gzip=%s: %d tasks = %d bytes%n", format, gzip, size, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!gzip) {
+            return writer.writeValueAsBytes(tasks);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            writer.writeValue(out, tasks);
+        }
+        return bytes.toByteArray();
+    }
+}
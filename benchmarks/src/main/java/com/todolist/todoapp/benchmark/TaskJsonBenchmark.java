@@ -0,0 +1,46 @@
+package com.todolist.todoapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.todolist.todoapp.TodoappApplication;
+import com.todolist.todoapp.dto.TaskDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response body cost of a listing, using the same ObjectMapper bean the app registers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<TaskDTO> tasks;
+    private ObjectWriter writer;
+    private byte[] json;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setUp() throws Exception {
+        tasks = Fixtures.dtos(Fixtures.tasks(size, Fixtures.users(100)));
+        mapper = new TodoappApplication().objectMapper();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, TaskDTO.class));
+        json = writer.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<TaskDTO> deserialize() throws Exception {
+        return mapper.readerForListOf(TaskDTO.class).readValue(json);
+    }
+}
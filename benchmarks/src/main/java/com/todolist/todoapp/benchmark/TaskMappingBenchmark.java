@@ -0,0 +1,40 @@
+package com.todolist.todoapp.benchmark;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO mapping of a whole listing. TaskController.toDTO is private and only calls new TaskDTO(task),
+// so the constructor is measured directly.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = Fixtures.tasks(size, Fixtures.users(100));
+        Fixtures.dtos(tasks);
+    }
+
+    @Benchmark
+    public List<TaskDTO> toDTO() {
+        List<TaskDTO> dtos = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            dtos.add(new TaskDTO(task));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,101 @@
+package com.todolist.todoapp.benchmark;
+
+import com.todolist.todoapp.TodoappApplication;
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.model.User;
+import com.todolist.todoapp.repository.TaskRepository;
+import com.todolist.todoapp.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Listing queries against a seeded in-memory H2, through the real repositories and Hibernate setup.
+// The seed is built once per fork; the full application context starts, but with no HTTP listener.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+
+    @Param({"10000"})
+    private int tasks;
+
+    @Param({"100"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        // Passed as arguments: builder defaults would lose to the app's application.properties
+        context = new SpringApplicationBuilder(TodoappApplication.class)
+                .run("--server.port=-1",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        taskRepository = context.getBean(TaskRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        List<User> saved = new ArrayList<>();
+        for (User fixture : Fixtures.users(users)) {
+            fixture.setId(null);
+            saved.add(userRepository.save(fixture));
+        }
+        user = saved.get(0);
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int from = 0; from < tasks; from += 1000) {
+            int start = from;
+            tx.executeWithoutResult(status -> {
+                List<Task> batch = new ArrayList<>();
+                for (int i = start; i < Math.min(start + 1000, tasks); i++) {
+                    Task task = Fixtures.task(i, saved);
+                    task.setChangeVersion((long) i + 1);
+                    batch.add(task);
+                }
+                taskRepository.saveAll(batch);
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> findAllAsDTO() {
+        return taskRepository.findAllAsDTO();
+    }
+
+    @Benchmark
+    public List<TaskDTO> findByOwnerOrAssignee() {
+        return taskRepository.findByOwnerOrAssignee(user, user);
+    }
+
+    @Benchmark
+    public List<TaskDTO> findByAssignee() {
+        return taskRepository.findByAssignee(user);
+    }
+
+    @Benchmark
+    public List<TaskDTO> firstPageOfOpenTasks() {
+        return taskRepository.findPage(user.getId(), false, null, null, null, null, null, Limit.of(50));
+    }
+
+    @Benchmark
+    public List<TaskDTO> changesSince() {
+        return taskRepository.findChangedBetween(tasks - 100, tasks, Limit.of(500));
+    }
+}
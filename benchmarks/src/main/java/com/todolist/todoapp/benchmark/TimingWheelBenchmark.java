@@ -0,0 +1,70 @@
+package com.todolist.todoapp.benchmark;
+
+import com.todolist.todoapp.service.TimingWheel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The reminder scheduler's wheel with `size` timers spread over a 24h horizon at 1s ticks (the defaults of
+// TaskReminderScheduler). reschedule and scheduleAndCancel are what a task create/update/delete costs;
+// tick is one scheduler tick, with every fired timer rescheduled a day out so the wheel stays full.
+// Costs should not grow with size. Heap retained per timer is printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TimingWheelBenchmark {
+
+    private static final long HORIZON_TICKS = 24 * 60 * 60;
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private TimingWheel<Long> wheel;
+    private SplittableRandom random;
+    private long nextKey;
+
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(42);
+        long before = usedHeap();
+        wheel = new TimingWheel<>(65536, 0);
+        for (long key = 0; key < size; key++) {
+            long deadline = 1 + random.nextLong(HORIZON_TICKS);
+            wheel.schedule(key, deadline, deadline);
+        }
+        nextKey = size;
+        System.out.printf("%n%d timers: %d bytes retained per timer%n", size, (usedHeap() - before) / size);
+    }
+
+    @Benchmark
+    public void reschedule() {
+        long deadline = wheel.now() + 1 + random.nextLong(HORIZON_TICKS);
+        wheel.schedule(random.nextLong(size), deadline, deadline);
+    }
+
+    @Benchmark
+    public Long scheduleAndCancel() {
+        long key = nextKey++;
+        long deadline = wheel.now() + 1 + random.nextLong(HORIZON_TICKS);
+        wheel.schedule(key, deadline, deadline);
+        return wheel.cancel(key);
+    }
+
+    @Benchmark
+    public void tick() {
+        long now = wheel.now() + 1;
+        wheel.advance(now, (key, value) -> wheel.schedule(key, now + HORIZON_TICKS, value));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,426 @@
+package com.todolist.todoapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.todolist.todoapp.TodoappApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+// End-to-end workload: boots the app on a random port against an in-memory H2, registers and seeds
+// N users, then has each of them log in and run a list/create/update/delete mix over HTTP. Latencies
+// go into one HdrHistogram Recorder per operation; the measured window excludes warmup. Writes a JSON
+// report and exits with 1 if a threshold or the baseline comparison fails, so it can gate a build.
+// load.scenario=batch replaces the mix with two create-only phases, one POST per task and then
+// load.batch-size tasks per POST to the batch endpoint, and reports tasks per second for each.
+//
+// Options are system properties (see README): load.users, load.duration-s, load.warmup-s,
+// load.interval-ms, load.seed-tasks, load.relogin-every, load.login-burst-threads, load.profile,
+// load.scenario, load.batch-size, load.report, load.max-p99-ms, load.max-p999-ms, load.baseline,
+// load.max-regression.
+public class LoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String[] OPERATIONS = { "login", "list", "create", "update", "delete", "batch" };
+
+    private final int users = Integer.getInteger("load.users", 50);
+    private final int durationSeconds = Integer.getInteger("load.duration-s", 30);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-s", 10);
+    // 0 runs each user closed-loop; otherwise each user aims for one request per interval and
+    // latencies are corrected for coordinated omission
+    private final long intervalMs = Long.getLong("load.interval-ms", 0);
+    private final int seedTasks = Integer.getInteger("load.seed-tasks", 20);
+    private final int reloginEvery = Integer.getInteger("load.relogin-every", 200);
+    // Extra threads that do nothing but log in during the whole run, to check that a login storm
+    // doesn't slow down the task API; reported separately and not gated by thresholds
+    private final int loginBurstThreads = Integer.getInteger("load.login-burst-threads", 0);
+    private final String profile = System.getProperty("load.profile", "");
+    private final String scenario = System.getProperty("load.scenario", "mix");
+    private final int batchSize = Integer.getInteger("load.batch-size", 100);
+    private final File reportFile = new File(System.getProperty("load.report", "target/load-report.json"));
+
+    private final ObjectMapper mapper = new TodoappApplication().objectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    // Tasks written by create and batch requests, and how long each of those phases was measured
+    private final Map<String, LongAdder> tasksWritten = new LinkedHashMap<>();
+    private final Map<String, Double> phaseSeconds = new LinkedHashMap<>();
+    private final LongAdder clientErrors = new LongAdder();
+    private final Recorder burstRecorder = new Recorder(3);
+    private final LongAdder burstRejected = new LongAdder();
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadTest().run());
+    }
+
+    int run() throws Exception {
+        for (String operation : OPERATIONS) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+            tasksWritten.put(operation, new LongAdder());
+        }
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.main.banner-mode=off", "--logging.level.root=WARN"));
+        if (!profile.isBlank()) {
+            appArgs.add("--spring.profiles.active=" + profile);
+        }
+        try (ConfigurableApplicationContext context = SpringApplication.run(TodoappApplication.class, appArgs.toArray(String[]::new))) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<VirtualUser> virtualUsers = seed();
+
+            if ("batch".equals(scenario)) {
+                // The same create workload twice, each with its own warmup and measured window
+                phaseSeconds.put("create", measure(virtualUsers, "create", VirtualUser::createOneByOne));
+                phaseSeconds.put("batch", measure(virtualUsers, "batch", VirtualUser::createInBatches));
+                return report(phaseSeconds.get("create") + phaseSeconds.get("batch"));
+            }
+            return report(measure(virtualUsers, null, VirtualUser::drive));
+        }
+    }
+
+    // Runs the workload on every user for warmup + duration and returns the measured seconds. With an
+    // operation given only that operation's samples are reset after warmup, so earlier phases are kept.
+    private double measure(List<VirtualUser> virtualUsers, String operation, BiConsumer<VirtualUser, Long> workload)
+            throws InterruptedException {
+        int burstThreads = operation == null ? loginBurstThreads : 0;
+        ExecutorService executor = Executors.newFixedThreadPool(users + burstThreads);
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+        virtualUsers.forEach(user -> executor.submit(() -> workload.accept(user, end)));
+        for (int i = 0; i < burstThreads; i++) {
+            executor.submit(() -> loginBurst(end));
+        }
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(warmupEnd - System.nanoTime()));
+        if (operation == null) {
+            recorders.values().forEach(Recorder::getIntervalHistogram); // drop warmup samples
+            errors.values().forEach(LongAdder::reset);
+            tasksWritten.values().forEach(LongAdder::reset);
+            burstRecorder.getIntervalHistogram();
+            burstRejected.reset();
+            clientErrors.reset();
+        } else {
+            recorders.get(operation).getIntervalHistogram();
+            errors.get(operation).reset();
+            tasksWritten.get(operation).reset();
+        }
+        long measuredFrom = System.nanoTime();
+        executor.shutdown();
+        executor.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        return (System.nanoTime() - measuredFrom) / 1e9;
+    }
+
+    // Registers users and gives each a few tasks through the batch endpoint; none of this is measured
+    private List<VirtualUser> seed() throws Exception {
+        // Everyone first, since tasks are assigned to the next user
+        for (int i = 0; i < users; i++) {
+            send("POST", "/api/auth/register", null, Map.of("username", "load" + i, "password", PASSWORD));
+        }
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String username = "load" + i;
+            VirtualUser user = new VirtualUser(username, i);
+            user.token = mapper.readTree(send("POST", "/api/auth/login", null,
+                    Map.of("username", username, "password", PASSWORD)).body()).get("token").asText();
+            List<Map<String, Object>> operations = new ArrayList<>();
+            for (int t = 0; t < seedTasks; t++) {
+                operations.add(Map.of("op", "CREATE", "task", user.newTask(t)));
+            }
+            for (var result : mapper.readTree(send("POST", "/api/tasks/batch", user.token, operations).body())) {
+                if (result.get("status").asInt() == 201) {
+                    user.taskIds.add(result.get("id").asLong());
+                }
+            }
+            virtualUsers.add(user);
+        }
+        return virtualUsers;
+    }
+
+    // Back-to-back logins as random users; 503s from a saturated password hashing pool are expected
+    private void loginBurst(long endNanos) {
+        while (System.nanoTime() < endNanos) {
+            Map<String, String> credentials = Map.of(
+                    "username", "load" + ThreadLocalRandom.current().nextInt(users), "password", PASSWORD);
+            long start = System.nanoTime();
+            try {
+                if (send("POST", "/api/auth/login", null, credentials).statusCode() == 503) {
+                    burstRejected.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                clientErrors.increment();
+            }
+            burstRecorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    private final class VirtualUser {
+        final String username;
+        final String assignee;
+        final List<Long> taskIds = new ArrayList<>();
+        String token;
+        long requests;
+
+        VirtualUser(String username, int index) {
+            this.username = username;
+            this.assignee = "load" + ((index + 1) % users);
+        }
+
+        void drive(long endNanos) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+            long next = System.nanoTime();
+            while (System.nanoTime() < endNanos) {
+                try {
+                    if (requests++ % reloginEvery == 0) {
+                        login();
+                    }
+                    int dice = random.nextInt(100);
+                    if (dice < 60) {
+                        call("list", "GET", "/api/tasks", null);
+                    } else if (dice < 75 || taskIds.isEmpty()) {
+                        HttpResponse<String> response = call("create", "POST", "/api/tasks", newTask(random.nextInt(1000)));
+                        if (response != null && response.statusCode() == 200) {
+                            taskIds.add(mapper.readTree(response.body()).get("id").asLong());
+                        }
+                    } else if (dice < 90) {
+                        Long id = taskIds.get(random.nextInt(taskIds.size()));
+                        Map<String, Object> task = newTask(random.nextInt(1000));
+                        task.put("completed", random.nextBoolean());
+                        call("update", "PUT", "/api/tasks/" + id, task);
+                    } else {
+                        Long id = taskIds.remove(random.nextInt(taskIds.size()));
+                        call("delete", "DELETE", "/api/tasks/" + id, null);
+                    }
+                    if (intervalNanos > 0) {
+                        next += intervalNanos;
+                        TimeUnit.NANOSECONDS.sleep(Math.max(0, next - System.nanoTime()));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    // Unreadable response body; the request itself was already recorded
+                    clientErrors.increment();
+                }
+            }
+        }
+
+        void createOneByOne(long endNanos) {
+            int n = 0;
+            while (System.nanoTime() < endNanos) {
+                try {
+                    HttpResponse<String> response = call("create", "POST", "/api/tasks", newTask(n++));
+                    if (response != null && response.statusCode() == 200) {
+                        tasksWritten.get("create").increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    clientErrors.increment();
+                }
+            }
+        }
+
+        void createInBatches(long endNanos) {
+            int n = 0;
+            while (System.nanoTime() < endNanos) {
+                try {
+                    List<Map<String, Object>> operations = new ArrayList<>(batchSize);
+                    for (int i = 0; i < batchSize; i++) {
+                        operations.add(Map.of("op", "CREATE", "task", newTask(n++)));
+                    }
+                    HttpResponse<String> response = call("batch", "POST", "/api/tasks/batch", operations);
+                    if (response != null && response.statusCode() == 200) {
+                        for (var result : mapper.readTree(response.body())) {
+                            if (result.get("status").asInt() == 201) {
+                                tasksWritten.get("batch").increment();
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    clientErrors.increment();
+                }
+            }
+        }
+
+        void login() throws Exception {
+            HttpResponse<String> response = call("login", "POST", "/api/auth/login",
+                    Map.of("username", username, "password", PASSWORD));
+            if (response != null && response.statusCode() == 200) {
+                token = mapper.readTree(response.body()).get("token").asText();
+            }
+        }
+
+        Map<String, Object> newTask(int n) {
+            Map<String, Object> task = new LinkedHashMap<>();
+            task.put("title", "Load task " + n + " for " + username);
+            task.put("description", "Generated by the load harness");
+            task.put("dueDate", LocalDateTime.now().plusDays(n % 30).withNano(0).toString());
+            task.put("priority", n % 5);
+            task.put("owner", username);
+            task.put("assignee", n % 2 == 0 ? username : assignee);
+            return task;
+        }
+
+        // Times one request; non-2xx responses and I/O failures count as errors for the operation
+        HttpResponse<String> call(String operation, String method, String path, Object body) throws Exception {
+            long start = System.nanoTime();
+            HttpResponse<String> response = null;
+            try {
+                response = send(method, path, token, body);
+            } catch (IOException e) {
+                // counted below
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            if (intervalMs > 0) {
+                recorders.get(operation).recordValueWithExpectedInterval(micros, intervalMs * 1000);
+            } else {
+                recorders.get(operation).recordValue(micros);
+            }
+            if (response == null || response.statusCode() / 100 != 2) {
+                errors.get(operation).increment();
+            }
+            return response;
+        }
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int report(double measuredSeconds) throws Exception {
+        ObjectNode report = mapper.createObjectNode();
+        report.put("finishedAt", Instant.now().toString());
+        ObjectNode config = report.putObject("config");
+        config.put("users", users);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("intervalMs", intervalMs);
+        config.put("loginBurstThreads", loginBurstThreads);
+        config.put("profile", profile);
+        config.put("scenario", scenario);
+        if ("batch".equals(scenario)) {
+            config.put("batchSize", batchSize);
+        }
+        config.put("java", System.getProperty("java.version"));
+        report.put("measuredSeconds", measuredSeconds);
+
+        ObjectNode operations = report.putObject("operations");
+        long total = 0;
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            total += histogram.getTotalCount();
+            ObjectNode op = operations.putObject(entry.getKey());
+            op.put("count", histogram.getTotalCount());
+            op.put("errors", errors.get(entry.getKey()).sum());
+            double seconds = phaseSeconds.getOrDefault(entry.getKey(), measuredSeconds);
+            op.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+            if (tasksWritten.get(entry.getKey()).sum() > 0) {
+                op.put("tasksPerSecond", tasksWritten.get(entry.getKey()).sum() / seconds);
+            }
+            op.put("meanMs", histogram.getMean() / 1000);
+            op.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+            op.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+            op.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+            op.put("maxMs", histogram.getMaxValue() / 1000.0);
+        }
+        report.put("throughputPerSecond", total / measuredSeconds);
+        report.put("clientErrors", clientErrors.sum());
+        if ("batch".equals(scenario) && operations.get("create").has("tasksPerSecond") && operations.get("batch").has("tasksPerSecond")) {
+            report.put("batchSpeedup", operations.get("batch").get("tasksPerSecond").asDouble()
+                    / operations.get("create").get("tasksPerSecond").asDouble());
+        }
+        if (loginBurstThreads > 0) {
+            Histogram burst = burstRecorder.getIntervalHistogram();
+            ObjectNode loginBurst = report.putObject("loginBurst");
+            loginBurst.put("count", burst.getTotalCount());
+            loginBurst.put("rejected", burstRejected.sum());
+            loginBurst.put("p50Ms", burst.getValueAtPercentile(50) / 1000.0);
+            loginBurst.put("p99Ms", burst.getValueAtPercentile(99) / 1000.0);
+        }
+
+        ArrayNode violations = report.putArray("violations");
+        checkThresholds(operations, violations);
+        reportFile.getAbsoluteFile().getParentFile().mkdirs();
+        mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+        System.out.println(mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report));
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+        return violations.isEmpty() ? 0 : 1;
+    }
+
+    // Absolute limits apply to every operation; the baseline check compares p99/p999 with an earlier report
+    private void checkThresholds(ObjectNode operations, ArrayNode violations) throws Exception {
+        String maxP99 = System.getProperty("load.max-p99-ms");
+        String maxP999 = System.getProperty("load.max-p999-ms");
+        String baselinePath = System.getProperty("load.baseline");
+        double maxRegression = Double.parseDouble(System.getProperty("load.max-regression", "1.25"));
+        ObjectNode baseline = baselinePath != null ? (ObjectNode) mapper.readTree(new File(baselinePath)).get("operations") : null;
+
+        operations.fields().forEachRemaining(entry -> {
+            String operation = entry.getKey();
+            var op = entry.getValue();
+            if (op.get("count").asLong() == 0) {
+                return;
+            }
+            if (maxP99 != null && op.get("p99Ms").asDouble() > Double.parseDouble(maxP99)) {
+                violations.add(operation + " p99 " + op.get("p99Ms").asDouble() + " ms > " + maxP99 + " ms");
+            }
+            if (maxP999 != null && op.get("p999Ms").asDouble() > Double.parseDouble(maxP999)) {
+                violations.add(operation + " p999 " + op.get("p999Ms").asDouble() + " ms > " + maxP999 + " ms");
+            }
+            if (baseline != null && baseline.has(operation)) {
+                for (String percentile : new String[] { "p99Ms", "p999Ms" }) {
+                    double before = baseline.get(operation).get(percentile).asDouble();
+                    double now = op.get(percentile).asDouble();
+                    if (before > 0 && now > before * maxRegression) {
+                        violations.add(String.format("%s %s %.2f ms is more than %.2fx the baseline %.2f ms",
+                                operation, percentile, now, maxRegression, before));
+                    }
+                }
+            }
+        });
+    }
+}
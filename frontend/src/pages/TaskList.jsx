@@ -16,17 +16,25 @@ export default function TaskList() {
   const [filter, setFilter] = useState('all');
   const navigate = useNavigate();
 
-  const fetchTasks = () => {
-    api.get('/tasks')
-      .then(response => setTasks(response.data))
-      .catch(err => {
-        if (err.response && err.response.status === 403) {
-          setError('Access forbidden: Please make sure you are logged in and have permission to view tasks.');
-        } else {
-          setError('Failed to load tasks.');
-        }
-        console.error(err);
-      });
+  // The listing comes in pages; follow X-Next-Cursor until the last one
+  const fetchTasks = async () => {
+    try {
+      const all = [];
+      let after;
+      do {
+        const response = await api.get('/tasks', { params: after ? { after } : {} });
+        all.push(...response.data);
+        after = response.headers['x-next-cursor'];
+      } while (after);
+      setTasks(all);
+    } catch (err) {
+      if (err.response && err.response.status === 403) {
+        setError('Access forbidden: Please make sure you are logged in and have permission to view tasks.');
+      } else {
+        setError('Failed to load tasks.');
+      }
+      console.error(err);
+    }
   };
 
   useEffect(() => {
@@ -40,35 +48,29 @@ export default function TaskList() {
     setSnackbar({ open: true, message: 'Task deleted successfully!', severity: 'success' });
   };
 
-  const toggleComplete = async (task) => {
-    await api.put(`/tasks/${task.id}`, {
-      ...task,
-      completed: !task.completed,
-      owner: task.owner,         // username string
-      assignee: task.assignee    // username string
-    });
+  // Only the toggled field; version makes a concurrent edit fail with 409 instead of being overwritten
+  const patchTask = async (task, fields, message) => {
+    try {
+      await api.patch(`/tasks/${task.id}`, { ...fields, version: task.version });
+    } catch (err) {
+      fetchTasks();
+      if (err.response && err.response.status === 409) {
+        setSnackbar({ open: true, message: 'Task changed elsewhere; the list has been refreshed.', severity: 'warning' });
+      } else {
+        setSnackbar({ open: true, message: 'Failed to update task.', severity: 'error' });
+        console.error(err);
+      }
+      return;
+    }
     fetchTasks();
-    setSnackbar({
-      open: true,
-      message: !task.completed ? 'Task marked as complete!' : 'Task marked as incomplete!',
-      severity: 'info'
-    });
+    setSnackbar({ open: true, message, severity: 'info' });
   };
 
-  const togglePriority = async (task) => {
-    await api.put(`/tasks/${task.id}`, {
-      ...task,
-      priority: task.priority === 1 ? 0 : 1,
-      owner: task.owner,         // username string
-      assignee: task.assignee    // username string
-    });
-    fetchTasks();
-    setSnackbar({
-      open: true,
-      message: task.priority === 1 ? 'Task unstarred.' : 'Task starred!',
-      severity: 'info'
-    });
-  };
+  const toggleComplete = (task) => patchTask(task, { completed: !task.completed },
+    !task.completed ? 'Task marked as complete!' : 'Task marked as incomplete!');
+
+  const togglePriority = (task) => patchTask(task, { priority: task.priority === 1 ? 0 : 1 },
+    task.priority === 1 ? 'Task unstarred.' : 'Task starred!');
 
   // Filtering logic
   const filteredTasks = tasks.filter(task => {
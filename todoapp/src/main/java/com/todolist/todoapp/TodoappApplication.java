@@ -2,11 +2,15 @@ package com.todolist.todoapp;
 
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TodoappApplication {
 
 	public static void main(String[] args) {
@@ -19,4 +23,11 @@ public class TodoappApplication {
 		mapper.registerModule(new JavaTimeModule());
 		return mapper;
 	}
+
+	// Binary JSON for clients that send Accept: application/x-jackson-smile. A copy of the mapper above,
+	// so dates and TaskDTO are written the same way as in JSON.
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+		return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+	}
 }
@@ -3,8 +3,12 @@ package com.todolist.todoapp.controller;
 import com.todolist.todoapp.dto.UserDTO;
 import com.todolist.todoapp.model.User;
 import com.todolist.todoapp.security.JwtUtil;
+import com.todolist.todoapp.security.PasswordHashingExecutor;
 import com.todolist.todoapp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
@@ -13,6 +17,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -24,27 +31,49 @@ public class AuthController {
     private JwtUtil jwtUtil;
     @Autowired
     private AuthenticationManager authenticationManager;
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
 
+    // Registration and login hash or verify with BCrypt on the password hashing pool;
+    // the request thread is released while they run (async request)
     @PostMapping("/register")
-    public Map<String, Object> register(@RequestBody Map<String, String> body) {
-        User user = userService.registerUser(body.get("username").trim(), body.get("password"));
-        String token = jwtUtil.generateToken(user.getUsername());
-        return Map.of("token", token, "username", user.getUsername());
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> register(@RequestBody Map<String, String> body) {
+        String username = body.get("username").trim();
+        String password = body.get("password");
+        return onHashingPool(() -> {
+            User user = userService.registerUser(username, password);
+            String token = jwtUtil.generateToken(user.getUsername());
+            return ResponseEntity.ok(Map.of("token", token, "username", user.getUsername()));
+        });
     }
 
     @PostMapping("/login")
-    public Map<String, Object> login(@RequestBody Map<String, String> body) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(@RequestBody Map<String, String> body) {
         String username = body.get("username").trim();
         String password = body.get("password");
+        return onHashingPool(() -> {
+            try {
+                // Also rehashes the stored password if it was hashed below the configured BCrypt cost
+                authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)
+                );
+                User user = userService.getByUsername(username);
+                String token = jwtUtil.generateToken(user.getUsername());
+                return ResponseEntity.ok(Map.of("token", token, "username", user.getUsername()));
+            } catch (AuthenticationException e) {
+                throw new RuntimeException("Invalid username or password");
+            }
+        });
+    }
+
+    // A saturated pool is answered at once with 503 instead of queueing more BCrypt work
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> onHashingPool(Supplier<ResponseEntity<Map<String, Object>>> work) {
         try {
-            authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-            );
-            User user = userService.getByUsername(username);
-            String token = jwtUtil.generateToken(user.getUsername());
-            return Map.of("token", token, "username", user.getUsername());
-        } catch (AuthenticationException e) {
-            throw new RuntimeException("Invalid username or password");
+            return passwordHashingExecutor.submit(work);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build());
         }
     }
 
@@ -0,0 +1,23 @@
+package com.todolist.todoapp.controller;
+
+import com.todolist.todoapp.service.TaskReminder;
+import com.todolist.todoapp.service.TaskReminderSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Sends reminders down the task event stream, to the owner, the assignee and admins
+@Component
+@ConditionalOnProperty(name = "tasks.reminders.sink", havingValue = "sse")
+public class SseReminderSink implements TaskReminderSink {
+
+    private final TaskEventBroadcaster broadcaster;
+
+    public SseReminderSink(TaskEventBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void remind(TaskReminder reminder) {
+        broadcaster.publishReminder(reminder);
+    }
+}
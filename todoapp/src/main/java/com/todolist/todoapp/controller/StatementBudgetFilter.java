@@ -0,0 +1,56 @@
+package com.todolist.todoapp.controller;
+
+import com.todolist.todoapp.repository.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Counts the SQL statements each request issues, security filters included, and publishes them as
+// http.server.requests.sql per endpoint. Requests over the budget are logged, which is how N+1
+// patterns show up before they show up in latency.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jdbc.statement-budget.per-request:20}")
+    private int budget;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        try (SqlStatementCounter.Scope statements = SqlStatementCounter.open()) {
+            filterChain.doFilter(request, response);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("http.server.requests.sql")
+                    .baseUnit("statements")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .record(statements.count());
+            if (statements.count() > budget) {
+                meterRegistry.counter("http.server.requests.sql.over.budget", "method", request.getMethod(), "uri", uri).increment();
+                logger.warn("{} {} issued {} SQL statements, budget is {}", request.getMethod(), uri, statements.count(), budget);
+            }
+        }
+    }
+}
@@ -1,29 +1,153 @@
 package com.todolist.todoapp.controller;
 
+import com.todolist.todoapp.dto.TaskBatchOperation;
+import com.todolist.todoapp.dto.TaskBatchResult;
+import com.todolist.todoapp.dto.TaskChanges;
 import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskFilter;
+import com.todolist.todoapp.dto.TaskPage;
+import com.todolist.todoapp.dto.TaskPatch;
+import com.todolist.todoapp.dto.TaskStats;
 import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.service.CustomUserDetailsService;
+import com.todolist.todoapp.service.PrincipalCache;
 import com.todolist.todoapp.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private TaskEventBroadcaster broadcaster;
+
+    // Supports ?completed=&priority=&dueFrom=&dueTo= filters and ?limit=&after= keyset paging; pages hold
+    // at most tasks.page.max-limit tasks, which is also the default. The cursor for the next page is
+    // returned in the X-Next-Cursor header.
+    // Answers If-None-Match with 304 from the caller's change version, without querying tasks.
+    // JSON or Smile depending on Accept, so the ETag varies by it as well.
     @GetMapping
-    public List<TaskDTO> getAllTasks(@AuthenticationPrincipal UserDetails userDetails) {
-        return taskService.getAllTasks(userDetails.getUsername())
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<TaskDTO>> getAllTasks(@AuthenticationPrincipal UserDetails userDetails, TaskFilter filter,
+                                                     ServletWebRequest request) {
+        String query = request.getRequest().getQueryString();
+        String variant = negotiatedFormat(request.getHeader("Accept")) + "?" + (query != null ? query : "");
+        String etag = taskService.listingETag(userDetails.getUsername(), variant);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        TaskPage<TaskDTO> page = taskService.getTasks(userDetails.getUsername(), filter);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).varyBy("Authorization", "Accept");
+        if (page.nextCursor() != null) {
+            response.header("X-Next-Cursor", page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    // The representation Accept negotiates to, so JSON and Smile listings never share an ETag.
+    // Wildcards are answered with JSON, which the converters prefer.
+    static String negotiatedFormat(String accept) {
+        if (accept == null) {
+            return "json";
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return accept;
+        }
+        MimeTypeUtils.sortBySpecificity(types);
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.equalsTypeAndSubtype(SMILE)) {
+                return "smile";
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return "json";
+            }
+        }
+        return accept;
+    }
+
+    // Server-Sent Events for tasks the caller owns or is assigned (every task for admins),
+    // named created/updated/deleted, so open tabs don't need to poll the listing
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks(@AuthenticationPrincipal UserDetails userDetails) {
+        PrincipalCache.Principal principal = customUserDetailsService.loadPrincipal(userDetails.getUsername());
+        return broadcaster.subscribe(principal.id(), "ADMIN".equalsIgnoreCase(principal.role()));
+    }
+
+    // Open/completed/overdue/per-priority counts for the caller's tasks; admins get every task
+    @GetMapping("/stats")
+    public TaskStats getStats(@AuthenticationPrincipal UserDetails userDetails) {
+        return taskService.getStats(userDetails.getUsername());
+    }
+
+    // Ranked keyword search; every word of ?q= is prefix matched against titles and descriptions
+    @GetMapping("/search")
+    public List<TaskDTO> searchTasks(@RequestParam String q, @RequestParam(required = false) Integer limit,
+                                     @AuthenticationPrincipal UserDetails userDetails) {
+        return taskService.searchTasks(userDetails.getUsername(), q, limit);
+    }
+
+    // Delta sync for offline clients: what changed after ?since= (0 for a full download), with the
+    // version to pass next time. Cost follows the number of changes, not the number of tasks.
+    @GetMapping("/changes")
+    public TaskChanges getChanges(@RequestParam(defaultValue = "0") long since, @RequestParam(required = false) Integer limit,
+                                  @AuthenticationPrincipal UserDetails userDetails) {
+        return taskService.getChangesSince(userDetails.getUsername(), since, limit);
+    }
+
+    // Newline-delimited JSON, written row by row as the database cursor advances
+    @GetMapping("/export")
+    public void exportTasks(@AuthenticationPrincipal UserDetails userDetails, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        // Commit the headers now so the client gets its first byte before the query has produced rows
+        response.flushBuffer();
+        try {
+            taskService.exportTasks(userDetails.getUsername(), dto -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(dto));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
     }
 
     // Helper to convert TaskDTO to Task
@@ -47,6 +171,19 @@ public class TaskController {
         return toDTO(taskService.updateTask(id, updatedTask, userDetails.getUsername()));
     }
 
+    // Changes only the fields present in the body; with "version" in the body the change is
+    // conditional and a stale version is answered with 409
+    @PatchMapping("/{id}")
+    public TaskDTO patchTask(@PathVariable Long id, @RequestBody TaskPatch patch, @AuthenticationPrincipal UserDetails userDetails) {
+        return toDTO(taskService.patchTask(id, patch, userDetails.getUsername()));
+    }
+
+    // Applies many create/update/delete operations in one transaction, one result per entry
+    @PostMapping("/batch")
+    public List<TaskBatchResult> applyBatch(@RequestBody List<TaskBatchOperation> operations, @AuthenticationPrincipal UserDetails userDetails) {
+        return taskService.applyBatch(operations, userDetails.getUsername());
+    }
+
     @DeleteMapping("/{id}")
     public void deleteTask(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
         taskService.deleteTask(id, userDetails.getUsername());
@@ -54,15 +191,12 @@ public class TaskController {
 
     // Helper to convert Task to TaskDTO
     private TaskDTO toDTO(Task task) {
-        TaskDTO dto = new TaskDTO();
-        dto.setId(task.getId());
-        dto.setTitle(task.getTitle());
-        dto.setDescription(task.getDescription());
-        dto.setDueDate(task.getDueDate());
-        dto.setCompleted(task.isCompleted());
-        dto.setPriority(task.getPriority());
-        dto.setOwner(task.getOwner() != null ? task.getOwner().getUsername() : null);
-        dto.setAssignee(task.getAssignee() != null ? task.getAssignee().getUsername() : null);
-        return dto;
+        return new TaskDTO(task);
+    }
+
+    // Malformed input caught in the service (bad cursor, null PATCH field, oversized batch) is the client's fault
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
     }
 }
@@ -0,0 +1,228 @@
+package com.todolist.todoapp.controller;
+
+import com.todolist.todoapp.service.TaskEvent;
+import com.todolist.todoapp.service.TaskEventBus;
+import com.todolist.todoapp.service.TaskReminder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pushes task events to SSE subscribers. Idle connections hold no thread: the servlet request is async
+// and each subscriber is just a bounded queue. Publishing only offers to those queues; a small shared
+// pool drains whichever queues have pending events. A subscriber whose queue overflows is dropped and
+// has to reconnect and reload. So is one whose client stops reading: a send blocked for longer than
+// send-timeout-ms is given up on, and the pool gets a spare thread until that send returns.
+@Component
+public class TaskEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+
+    // Marks a send the watchdog has given up on
+    private static final long ABANDONED = Long.MIN_VALUE;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService timers = Executors.newSingleThreadScheduledExecutor();
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+
+    public TaskEventBroadcaster(TaskEventBus eventBus,
+                                @Value("${tasks.stream.buffer-size:256}") int bufferSize,
+                                @Value("${tasks.stream.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${tasks.stream.sender-threads:2}") int senderThreads,
+                                @Value("${tasks.stream.heartbeat-ms:25000}") long heartbeatMs,
+                                @Value("${tasks.stream.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        eventBus.subscribe(this::publish);
+        timers.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(10, sendTimeoutMs / 4);
+        timers.scheduleAtFixedRate(this::abandonStalledSends, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(Long userId, boolean admin) {
+        return subscribe(userId, admin, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Long userId, boolean admin, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(ids.incrementAndGet(), userId, admin, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.put(subscriber.id, subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(e -> subscribers.remove(subscriber.id));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void publish(TaskEvent event) {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (event.isVisibleTo(subscriber.userId, subscriber.admin)) {
+                enqueue(subscriber, SseEmitter.event().name(event.type().name().toLowerCase())
+                        .id(Long.toString(event.taskId()))
+                        .data(event.task() != null ? event.task() : Map.of("id", event.taskId()), MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    // "upcoming" / "overdue" events carrying the task id and due date
+    public void publishReminder(TaskReminder reminder) {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (reminder.isVisibleTo(subscriber.userId, subscriber.admin)) {
+                enqueue(subscriber, SseEmitter.event().name(reminder.type().name().toLowerCase())
+                        .id(Long.toString(reminder.taskId()))
+                        .data(Map.of("id", reminder.taskId(), "dueDate", reminder.dueDate()), MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers.values()) {
+            enqueue(subscriber, SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            logger.info("Dropping task stream subscriber {}: {} events behind", subscriber.id, bufferSize);
+            drop(subscriber, null);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (subscribers.containsKey(subscriber.id) && (event = subscriber.queue.poll()) != null) {
+                send(subscriber, event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscribers.containsKey(subscriber.id)) {
+            // Completion is left to the senders: the emitter locks around each send, so completing it from
+            // a publishing thread would wait on a stalled client
+            if (subscriber.completed.compareAndSet(false, true)) {
+                if (subscriber.failure != null) {
+                    subscriber.emitter.completeWithError(subscriber.failure);
+                } else {
+                    subscriber.emitter.complete();
+                }
+            }
+        } else if (!subscriber.queue.isEmpty()) {
+            // An event may have arrived after the last poll but before draining was cleared
+            schedule(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        long started = System.nanoTime();
+        subscriber.sendingSince.set(started);
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            if (!subscriber.sendingSince.compareAndSet(started, 0)) {
+                // Abandoned meanwhile; hand back the thread the pool was lent
+                resizeSenders(-1);
+            }
+        }
+    }
+
+    // A blocking write to a client that stopped reading holds its sender until the container's write
+    // timeout. Drop that subscriber and lend the pool a thread so everyone else keeps getting events.
+    private void abandonStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers.values()) {
+            long started = subscriber.sendingSince.get();
+            if (started != 0 && started != ABANDONED && now - started > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)
+                    && subscriber.sendingSince.compareAndSet(started, ABANDONED)) {
+                logger.info("Dropping task stream subscriber {}: a send blocked for over {} ms", subscriber.id, sendTimeoutMs);
+                drop(subscriber, new IOException("Send blocked for over " + sendTimeoutMs + " ms"));
+                resizeSenders(1);
+            }
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            if (delta > 0) {
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+            } else {
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, Throwable cause) {
+        if (cause != null) {
+            subscriber.failure = cause;
+        }
+        if (subscribers.remove(subscriber.id) != null) {
+            subscriber.queue.clear();
+            schedule(subscriber);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timers.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private static final class Subscriber {
+        final long id;
+        final Long userId;
+        final boolean admin;
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+        // System.nanoTime() at the start of the send in progress, 0 when idle, ABANDONED once given up on
+        final AtomicLong sendingSince = new AtomicLong();
+        volatile Throwable failure;
+
+        Subscriber(long id, Long userId, boolean admin, SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> queue) {
+            this.id = id;
+            this.userId = userId;
+            this.admin = admin;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
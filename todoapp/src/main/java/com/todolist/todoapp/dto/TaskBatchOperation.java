@@ -0,0 +1,21 @@
+package com.todolist.todoapp.dto;
+
+// One entry of a POST /api/tasks/batch request
+public class TaskBatchOperation {
+    public enum Op { CREATE, UPDATE, DELETE }
+
+    private Op op;
+    private Long id;       // required for UPDATE and DELETE
+    private TaskDTO task;  // required for CREATE and UPDATE
+
+    public TaskBatchOperation() {}
+
+    public Op getOp() { return op; }
+    public void setOp(Op op) { this.op = op; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public TaskDTO getTask() { return task; }
+    public void setTask(TaskDTO task) { this.task = task; }
+}
@@ -0,0 +1,35 @@
+package com.todolist.todoapp.dto;
+
+// Outcome of one batch entry; status uses HTTP codes so clients can treat it like a single call
+public class TaskBatchResult {
+    private int index;
+    private TaskBatchOperation.Op op;
+    private Long id;
+    private int status;
+    private String error;
+
+    public TaskBatchResult() {}
+
+    public TaskBatchResult(int index, TaskBatchOperation.Op op, Long id, int status, String error) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public TaskBatchOperation.Op getOp() { return op; }
+    public void setOp(TaskBatchOperation.Op op) { this.op = op; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,8 @@
+package com.todolist.todoapp.dto;
+
+import java.util.List;
+
+// Delta since a client's last sync: tasks to upsert, ids to drop, and the version to send as ?since=
+// next time. hasMore means the change list was truncated and the client should ask again right away.
+public record TaskChanges(List<TaskDTO> changed, List<Long> deleted, long version, boolean hasMore) {
+}
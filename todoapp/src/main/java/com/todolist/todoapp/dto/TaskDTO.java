@@ -1,7 +1,12 @@
 package com.todolist.todoapp.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.todolist.todoapp.model.Task;
+
 import java.time.LocalDateTime;
 
+// Listings are the largest responses; TaskDTOSerializer writes them without bean introspection
+@JsonSerialize(using = TaskDTOSerializer.class)
 public class TaskDTO {
     private Long id;
     private String title;
@@ -11,9 +16,36 @@ public class TaskDTO {
     private int priority;
     private String owner;    // username string
     private String assignee; // username string
+    private Long changeVersion;     // read-only, ignored on writes
+    private LocalDateTime updatedAt; // read-only, ignored on writes
+    private Long version;            // current version; on PUT, the version the edit was based on (optional)
 
     public TaskDTO() {}
 
+    public TaskDTO(Task task) {
+        this(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(), task.isCompleted(), task.getPriority(),
+                task.getOwner() != null ? task.getOwner().getUsername() : null,
+                task.getAssignee() != null ? task.getAssignee().getUsername() : null,
+                task.getChangeVersion(), task.getUpdatedAt(), task.getVersion());
+    }
+
+    // Used by TaskRepository constructor-expression queries
+    public TaskDTO(Long id, String title, String description, LocalDateTime dueDate,
+                   boolean completed, int priority, String owner, String assignee,
+                   Long changeVersion, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.completed = completed;
+        this.priority = priority;
+        this.owner = owner;
+        this.assignee = assignee;
+        this.changeVersion = changeVersion;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -37,4 +69,13 @@ public class TaskDTO {
 
     public String getAssignee() { return assignee; }
     public void setAssignee(String assignee) { this.assignee = assignee; }
+
+    public Long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(Long changeVersion) { this.changeVersion = changeVersion; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,87 @@
+package com.todolist.todoapp.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+// Writes a TaskDTO field by field, in the order and shape the bean serializer used (nulls included),
+// instead of walking introspected properties and invoking their accessors. Field names are
+// pre-encoded once. Dates go through whatever LocalDateTime serializer the mapper is configured with,
+// so JSON and Smile keep the same date format. New TaskDTO fields must be added here as well.
+public class TaskDTOSerializer extends StdSerializer<TaskDTO> implements ResolvableSerializer {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString DUE_DATE = new SerializedString("dueDate");
+    private static final SerializableString COMPLETED = new SerializedString("completed");
+    private static final SerializableString PRIORITY = new SerializedString("priority");
+    private static final SerializableString OWNER = new SerializedString("owner");
+    private static final SerializableString ASSIGNEE = new SerializedString("assignee");
+    private static final SerializableString CHANGE_VERSION = new SerializedString("changeVersion");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    private JsonSerializer<Object> dateSerializer;
+
+    public TaskDTOSerializer() {
+        super(TaskDTO.class);
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        dateSerializer = provider.findValueSerializer(provider.constructType(LocalDateTime.class), null);
+    }
+
+    @Override
+    public void serialize(TaskDTO task, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(task);
+        gen.writeFieldName(ID);
+        writeNumber(gen, task.getId());
+        gen.writeFieldName(TITLE);
+        gen.writeString(task.getTitle());
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(task.getDescription());
+        gen.writeFieldName(DUE_DATE);
+        writeDate(gen, task.getDueDate(), provider);
+        gen.writeFieldName(COMPLETED);
+        gen.writeBoolean(task.isCompleted());
+        gen.writeFieldName(PRIORITY);
+        gen.writeNumber(task.getPriority());
+        gen.writeFieldName(OWNER);
+        gen.writeString(task.getOwner());
+        gen.writeFieldName(ASSIGNEE);
+        gen.writeString(task.getAssignee());
+        gen.writeFieldName(CHANGE_VERSION);
+        writeNumber(gen, task.getChangeVersion());
+        gen.writeFieldName(UPDATED_AT);
+        writeDate(gen, task.getUpdatedAt(), provider);
+        gen.writeFieldName(VERSION);
+        writeNumber(gen, task.getVersion());
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private void writeDate(JsonGenerator gen, LocalDateTime value, SerializerProvider provider) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            dateSerializer.serialize(value, gen, provider);
+        }
+    }
+}
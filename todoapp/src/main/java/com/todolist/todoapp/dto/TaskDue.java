@@ -0,0 +1,7 @@
+package com.todolist.todoapp.dto;
+
+import java.time.LocalDateTime;
+
+// The little the reminder scheduler needs to know about an open task with a due date
+public record TaskDue(Long id, LocalDateTime dueDate, Long ownerId, Long assigneeId, Long changeVersion) {
+}
@@ -0,0 +1,37 @@
+package com.todolist.todoapp.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Query parameters accepted by GET /api/tasks; every field is optional
+public class TaskFilter {
+    private Boolean completed;
+    private Integer priority;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueTo;
+    private String after;    // opaque cursor returned as X-Next-Cursor
+    private Integer limit;
+
+    public TaskFilter() {}
+
+    public Boolean getCompleted() { return completed; }
+    public void setCompleted(Boolean completed) { this.completed = completed; }
+
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+
+    public LocalDateTime getDueFrom() { return dueFrom; }
+    public void setDueFrom(LocalDateTime dueFrom) { this.dueFrom = dueFrom; }
+
+    public LocalDateTime getDueTo() { return dueTo; }
+    public void setDueTo(LocalDateTime dueTo) { this.dueTo = dueTo; }
+
+    public String getAfter() { return after; }
+    public void setAfter(String after) { this.after = after; }
+
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
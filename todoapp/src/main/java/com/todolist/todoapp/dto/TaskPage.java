@@ -0,0 +1,7 @@
+package com.todolist.todoapp.dto;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; nextCursor is null on the last page
+public record TaskPage<T>(List<T> items, String nextCursor) {
+}
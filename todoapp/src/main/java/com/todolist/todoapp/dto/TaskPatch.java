@@ -0,0 +1,65 @@
+package com.todolist.todoapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Body of PATCH /api/tasks/{id}: only the fields present in the JSON are changed. Jackson calls a setter
+// only for properties it sees, so the setters record which fields were sent (an explicit null included).
+// version, if sent, is the version the change was based on and is not itself a field to change.
+public class TaskPatch {
+
+    public enum Field { TITLE, DESCRIPTION, DUE_DATE, COMPLETED, PRIORITY, OWNER, ASSIGNEE }
+
+    private final Set<Field> present = EnumSet.noneOf(Field.class);
+    private String title;
+    private String description;
+    private LocalDateTime dueDate;
+    private Boolean completed;
+    private Integer priority;
+    private String owner;
+    private String assignee;
+    private Long version;
+
+    // A full PUT is a patch of every editable field; owner/assignee are kept when not given
+    public static TaskPatch of(TaskDTO dto) {
+        TaskPatch patch = new TaskPatch();
+        patch.setTitle(dto.getTitle());
+        patch.setDescription(dto.getDescription());
+        patch.setDueDate(dto.getDueDate());
+        patch.setCompleted(dto.isCompleted());
+        patch.setPriority(dto.getPriority());
+        if (dto.getOwner() != null) patch.setOwner(dto.getOwner());
+        if (dto.getAssignee() != null) patch.setAssignee(dto.getAssignee());
+        patch.setVersion(dto.getVersion());
+        return patch;
+    }
+
+    public boolean has(Field field) { return present.contains(field); }
+
+    public boolean hasChanges() { return !present.isEmpty(); }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; present.add(Field.TITLE); }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; present.add(Field.DESCRIPTION); }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+    public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; present.add(Field.DUE_DATE); }
+
+    public Boolean getCompleted() { return completed; }
+    public void setCompleted(Boolean completed) { this.completed = completed; present.add(Field.COMPLETED); }
+
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; present.add(Field.PRIORITY); }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; present.add(Field.OWNER); }
+
+    public String getAssignee() { return assignee; }
+    public void setAssignee(String assignee) { this.assignee = assignee; present.add(Field.ASSIGNEE); }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
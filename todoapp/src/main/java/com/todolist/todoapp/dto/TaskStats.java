@@ -0,0 +1,8 @@
+package com.todolist.todoapp.dto;
+
+import java.util.Map;
+
+// Dashboard counts for one user's tasks (owned or assigned, each task once) or for every task.
+// overdue counts open tasks whose due date has passed; byPriority counts open and completed tasks.
+public record TaskStats(long total, long open, long completed, long overdue, Map<Integer, Long> byPriority) {
+}
@@ -1,13 +1,34 @@
 package com.todolist.todoapp.model;
 
+import com.todolist.todoapp.repository.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    // "my open tasks": assignee = ? and completed = ? order by due_date
+    @Index(name = "ix_task_assignee_completed_due", columnList = "assignee_id, completed, due_date"),
+    // "assigned by me": owner = ? and assignee <> ?
+    @Index(name = "ix_task_owner_assignee", columnList = "owner_id, assignee_id"),
+    // keyset paging and overdue ranges on (due_date, id)
+    @Index(name = "ix_task_due_date_id", columnList = "due_date, id"),
+    // delta sync: change_version > ? order by change_version
+    @Index(name = "ix_task_change_version", columnList = "change_version")
+})
+// findById on update/delete/getTaskById; listings are DTO projections and bypass it
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.TASK_REGION)
+// Entity updates (batch endpoint) only write the columns that changed
+@DynamicUpdate
 public class Task {
 
-    @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can assign ids up front and batch inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,6 +49,16 @@ public class Task {
 
     private int priority;
 
+    // Stamped by TaskService from TaskChangeClock on every insert and update, for delta sync
+    private Long changeVersion;
+
+    private LocalDateTime updatedAt;
+
+    // Optimistic lock; a stale version on PUT/PATCH is answered with 409. The authorized single-statement
+    // updates in TaskRepositoryImpl bump it themselves. Nullable only so ddl-auto can add it to existing tables.
+    @Version
+    private Long version;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -82,4 +113,13 @@ public class Task {
 
     public User getAssignee() { return assignee; }
     public void setAssignee(User assignee) { this.assignee = assignee; }
+
+    public Long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(Long changeVersion) { this.changeVersion = changeVersion; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
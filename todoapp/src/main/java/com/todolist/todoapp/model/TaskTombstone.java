@@ -0,0 +1,47 @@
+package com.todolist.todoapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Records that a task left someone's view, so delta sync can report removals. A row with a null
+// userId is a deletion and feeds admins; per-user rows are written for the owner and assignee on
+// delete, and for whoever lost access when a task is reassigned.
+@Entity
+@Table(indexes = {
+    @Index(name = "ix_task_tombstone_user_version", columnList = "user_id, change_version")
+})
+public class TaskTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_tombstone_seq")
+    @SequenceGenerator(name = "task_tombstone_seq", sequenceName = "task_tombstone_seq", allocationSize = 50)
+    private Long id;
+
+    private Long taskId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private Long changeVersion;
+
+    private LocalDateTime removedAt;
+
+    protected TaskTombstone() {}
+
+    public TaskTombstone(Long taskId, Long userId, long changeVersion, LocalDateTime removedAt) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.changeVersion = changeVersion;
+        this.removedAt = removedAt;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getTaskId() { return taskId; }
+
+    public Long getUserId() { return userId; }
+
+    public Long getChangeVersion() { return changeVersion; }
+
+    public LocalDateTime getRemovedAt() { return removedAt; }
+}
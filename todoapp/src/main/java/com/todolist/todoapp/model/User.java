@@ -1,15 +1,31 @@
 package com.todolist.todoapp.model;
 
+import com.todolist.todoapp.repository.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.util.*;
 
 @Entity
-@Table(name = "APP_USER") // Avoids reserved word conflict
+// Read on nearly every request, written only on registration and role/password changes
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfig.USER_BY_USERNAME_REGION)
+@Table(name = "APP_USER", // Avoids reserved word conflict
+       indexes = @Index(name = "ux_app_user_username_normalized", columnList = "username_normalized", unique = true))
 public class User {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     @Column(unique = true, nullable = false)
     private String username;
+    // Trimmed, lower-cased copy of username used for case-insensitive lookups.
+    // Nullable only so ddl-auto can add it to existing tables; SchemaMaintenance backfills old rows.
+    // Natural id, so UserRepository.lookupByUsername resolves it through the second-level cache
+    @NaturalId(mutable = true)
+    @Column(name = "username_normalized")
+    private String usernameNormalized;
     private String password;
     private String role = "USER";
 
@@ -19,6 +35,16 @@ public class User {
     @OneToMany(mappedBy = "assignee")
     private List<Task> assignedTasks;
 
+    public static String normalizeUsername(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        usernameNormalized = username != null ? normalizeUsername(username) : null;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -26,6 +52,8 @@ public class User {
     public String getUsername() { return username; }
     public void setUsername(String username) { this.username = username; }
 
+    public String getUsernameNormalized() { return usernameNormalized; }
+
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
@@ -0,0 +1,37 @@
+package com.todolist.todoapp.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+// With virtual threads there is no Tomcat thread ceiling, so the Hikari pool is what limits concurrent
+// database work. Embedded H2 gains nothing from more connections than cores, so the pool is sized to
+// the machine it runs on rather than a fixed number.
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConnectionPoolSizing implements BeanPostProcessor {
+
+    // 0 means one connection per core, at least two
+    @Value("${tasks.virtual.pool-size:0}")
+    private int poolSize;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    int size = poolSize > 0 ? poolSize : Math.max(2, Runtime.getRuntime().availableProcessors());
+                    dataSource.unwrap(HikariDataSource.class).setMaximumPoolSize(size);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot size the connection pool", e);
+            }
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,83 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// One-time fixups for databases created by older versions of the app. ddl-auto=update adds new
+// tables, columns and sequences but never migrates data, so that part lives here. Runs after the
+// EntityManagerFactory has updated the schema and before the web server accepts requests.
+@Component
+public class SchemaMaintenance implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMaintenance.class);
+
+    // Must match the allocationSize of Task's @SequenceGenerator
+    private static final long TASK_ID_ALLOCATION = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Fixups bypass Hibernate, so rows they touch are evicted from the second-level cache
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        alignTaskSequence();
+        backfillNormalizedUsernames();
+        backfillChangeVersions();
+        backfillLockVersions();
+    }
+
+    // Task ids used to come from an IDENTITY column; move the new sequence past them
+    private void alignTaskSequence() {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from task", Long.class);
+        Long next = jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where sequence_name = 'TASK_SEQ'", Long.class);
+        long required = maxId + TASK_ID_ALLOCATION;
+        if (maxId > 0 && next != null && next < required) {
+            jdbcTemplate.execute("alter sequence task_seq restart with " + required);
+            logger.info("Moved task_seq from {} to {} past existing task ids", next, required);
+        }
+    }
+
+    // Rows created before username_normalized existed; normalized in Java so it matches User.normalizeUsername
+    private void backfillNormalizedUsernames() {
+        List<Object[]> rows = jdbcTemplate.query(
+                "select id, username from app_user where username_normalized is null",
+                (rs, i) -> new Object[] { User.normalizeUsername(rs.getString("username")), rs.getLong("id") });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("update app_user set username_normalized = ? where id = ?", rows);
+            entityManagerFactory.getCache().evict(User.class);
+            logger.info("Backfilled username_normalized for {} users", rows.size());
+        }
+    }
+
+    // Tasks written before delta sync existed; ids are unique and positive, which is all a version needs.
+    // Runs before TaskChangeClock first reads the highest stored version.
+    private void backfillChangeVersions() {
+        int updated = jdbcTemplate.update("update task set change_version = id where change_version is null");
+        if (updated > 0) {
+            entityManagerFactory.getCache().evict(Task.class);
+            logger.info("Backfilled change_version for {} tasks", updated);
+        }
+    }
+
+    // Tasks written before optimistic locking; Hibernate needs a non-null @Version to update them
+    private void backfillLockVersions() {
+        int updated = jdbcTemplate.update("update task set version = 0 where version is null");
+        if (updated > 0) {
+            entityManagerFactory.getCache().evict(Task.class);
+            logger.info("Backfilled version for {} tasks", updated);
+        }
+    }
+}
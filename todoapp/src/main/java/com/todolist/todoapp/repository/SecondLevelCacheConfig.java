@@ -0,0 +1,62 @@
+package com.todolist.todoapp.repository;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Hibernate second-level cache regions, held in Caffeine behind JCache. Every region Hibernate may ask for
+// is created here with an explicit bound. missing_cache_strategy=fail is set in application.properties,
+// so it also applies to contexts without this class: a new, unconfigured region, or a @DataJpaTest slice
+// that does not @Import this, fails at startup instead of running on silently unbounded caches.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String USER_REGION = "user";
+    public static final String USER_BY_USERNAME_REGION = "user-by-username";
+    public static final String TASK_REGION = "task";
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    // Each application context gets its own manager, so contexts sharing a JVM (tests, benchmarks)
+    // never see each other's rows
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${tasks.cache.user.max-size:10000}") long userMaxSize,
+                                              @Value("${tasks.cache.task.max-size:50000}") long taskMaxSize,
+                                              @Value("${tasks.cache.query.max-size:1000}") long queryMaxSize) {
+        CacheManager cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(URI.create("todoapp-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, USER_REGION, userMaxSize);
+        createRegion(cacheManager, USER_BY_USERNAME_REGION, userMaxSize);
+        createRegion(cacheManager, TASK_REGION, taskMaxSize);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryMaxSize);
+        // One entry per table; evicting one would make every cached query result look stale
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, Long maxSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
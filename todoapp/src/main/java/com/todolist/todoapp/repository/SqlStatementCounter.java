@@ -0,0 +1,53 @@
+package com.todolist.todoapp.repository;
+
+// Counts SQL statements executed on the current thread while a scope is open. Fed by the DataSource
+// proxy from StatementCountingDataSource; the request filter opens one scope per HTTP request and tests
+// can open their own around a call to pin how many statements it issues. Scopes nest: closing an inner
+// scope adds its count to the enclosing one.
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {}
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void increment() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private int count;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent != null) {
+                parent.count += count;
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
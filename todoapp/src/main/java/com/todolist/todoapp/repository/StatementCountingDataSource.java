@@ -0,0 +1,25 @@
+package com.todolist.todoapp.repository;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps the application DataSource so every statement execution reaches SqlStatementCounter. A JDBC
+// batch counts once, since it is one round trip. unwrap() still reaches the Hikari pool underneath.
+@Component
+public class StatementCountingDataSource implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .afterQuery((execInfo, queries) -> SqlStatementCounter.increment())
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -1,13 +1,79 @@
 package com.todolist.todoapp.repository;
 
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskDue;
 import com.todolist.todoapp.model.Task;
 import com.todolist.todoapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByOwnerOrAssignee(User owner, User assignee);
-    List<Task> findByAssignee(User assignee);
-    List<Task> findByOwnerAndAssigneeNot(User owner, User assignee);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    // Listings are projected straight into TaskDTO with owner/assignee usernames joined in,
+    // so a listing is a single statement instead of one extra SELECT per lazy user
+    String SELECT_DTO = "select new com.todolist.todoapp.dto.TaskDTO("
+            + "t.id, t.title, t.description, t.dueDate, t.completed, t.priority, o.username, a.username, t.changeVersion, t.updatedAt, t.version) "
+            + "from Task t left join t.owner o left join t.assignee a ";
+
+    @Query(SELECT_DTO + "order by t.id")
+    List<TaskDTO> findAllAsDTO();
+
+    // Filters are applied in id subqueries on Task alone: a predicate on t.owner/t.assignee would be
+    // rendered against the joined APP_USER alias and, like "owner = ? or assignee = ?", makes H2 scan
+    // the table. The subqueries seek the owner/assignee indexes and the outer query seeks the primary key.
+    @Query(SELECT_DTO + "where t.id in (select x.id from Task x where x.owner = :owner"
+            + " union select y.id from Task y where y.assignee = :assignee) order by t.id")
+    List<TaskDTO> findByOwnerOrAssignee(@Param("owner") User owner, @Param("assignee") User assignee);
+
+    @Query(SELECT_DTO + "where t.id in (select y.id from Task y where y.assignee = :assignee) order by t.id")
+    List<TaskDTO> findByAssignee(@Param("assignee") User assignee);
+
+    @Query(SELECT_DTO + "where t.id in (select x.id from Task x where x.owner = :owner and x.assignee <> :assignee)"
+            + " order by t.id")
+    List<TaskDTO> findByOwnerAndAssigneeNot(@Param("owner") User owner, @Param("assignee") User assignee);
+
+    // Forward-only cursors for exports; must be consumed inside a transaction and closed.
+    // DTO rows are never managed, so the persistence context stays empty while streaming.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "order by t.id")
+    Stream<TaskDTO> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "where t.id in (select x.id from Task x where x.owner.id = :userId"
+            + " union select y.id from Task y where y.assignee.id = :userId) order by t.id")
+    Stream<TaskDTO> streamVisibleTo(@Param("userId") Long userId);
+
+    // Delta sync: rows stamped after one version up to another, oldest change first.
+    // The admin variant seeks ix_task_change_version; the per-user one reuses the owner/assignee subqueries.
+    @Query(SELECT_DTO + "where t.changeVersion > :since and t.changeVersion <= :upTo order by t.changeVersion")
+    List<TaskDTO> findChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Limit limit);
+
+    @Query(SELECT_DTO + "where t.id in (select x.id from Task x where x.owner.id = :userId"
+            + " union select y.id from Task y where y.assignee.id = :userId)"
+            + " and t.changeVersion > :since and t.changeVersion <= :upTo order by t.changeVersion")
+    List<TaskDTO> findChangedBetweenVisibleTo(@Param("userId") Long userId, @Param("since") long since,
+                                              @Param("upTo") long upTo, Limit limit);
+
+    // Open tasks due in (from, to], nearest first, for the reminder scheduler. A range scan on
+    // ix_task_due_date_id; owner/assignee ids are read from the foreign keys without a join.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.todolist.todoapp.dto.TaskDue(t.id, t.dueDate, t.owner.id, t.assignee.id, t.changeVersion)"
+            + " from Task t where t.dueDate > :from and t.dueDate <= :to and t.completed = false order by t.dueDate, t.id")
+    Stream<TaskDue> streamOpenDueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // [owner, assignee (normalized usernames), priority, completed, count] rows, used to reconcile the
+    // in-memory stats per user and overall
+    @Query("select o.usernameNormalized, a.usernameNormalized, t.priority, t.completed, count(t) from Task t"
+            + " left join t.owner o left join t.assignee a"
+            + " group by o.usernameNormalized, a.usernameNormalized, t.priority, t.completed")
+    List<Object[]> countByUsersPriorityAndCompleted();
 }
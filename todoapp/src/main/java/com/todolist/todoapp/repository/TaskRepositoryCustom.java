@@ -0,0 +1,40 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.model.Task;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Queries whose JPQL depends on which filters are present, and authorization-aware mutations,
+// implemented in TaskRepositoryImpl
+public interface TaskRepositoryCustom {
+
+    // A mutated row as it was before the statement changed it
+    record PreviousRow(String title, String description, LocalDateTime dueDate, boolean completed, int priority,
+                       Long ownerId, Long assigneeId, Long version) {}
+
+    // Keyset page ordered by (dueDate nulls last, id). visibleTo = null means no owner/assignee
+    // restriction (admin); afterId = null means first page. Null filters are ignored.
+    List<TaskDTO> findPage(Long visibleTo, Boolean completed, Integer priority,
+                           LocalDateTime dueFrom, LocalDateTime dueTo,
+                           LocalDateTime afterDue, Long afterId, Limit limit);
+
+    // Single-statement UPDATE of the given columns (column name -> new value) plus change_version and
+    // updated_at, applied only if the caller owns or is assigned the task or is an admin, and, when
+    // expectedVersion is set, only if the row is still at that version. Bumps the optimistic lock version.
+    // Empty when no row was affected: the task is missing, the caller may not edit it, or it changed since.
+    Optional<PreviousRow> updateIfPermitted(Long id, Long callerId, boolean admin, Map<String, Object> columns,
+                                            long changeVersion, LocalDateTime updatedAt, Long expectedVersion);
+
+    // Writes each task's full row as one JDBC batch, each UPDATE applied only while the row is still at
+    // the version before task.getVersion(). Returns the ids that were not written (row gone or moved on).
+    Set<Long> updateAllAtPreviousVersion(List<Task> tasks);
+
+    // Single-statement DELETE, applied only if the caller owns the task or is an admin; empty when no row was affected
+    Optional<PreviousRow> deleteIfPermitted(Long id, Long callerId, boolean admin);
+}
@@ -0,0 +1,217 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.model.Task;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Only the predicates that are actually set end up in the SQL, and the keyset is split into a dated
+// range and the undated tail, so every page is an index range scan on one of Task's indexes
+// instead of a catch-all "(:x is null or ...)" query that H2 can only answer with a table scan.
+//
+// The mutations put the permission check in the WHERE clause and read the affected row back through
+// H2's OLD TABLE data change delta table, so check, write and "who could see it before" are one round trip.
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final String PREVIOUS_ROW =
+            "title, description, due_date, completed, priority, owner_id, assignee_id, version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskDTO> findPage(Long visibleTo, Boolean completed, Integer priority,
+                                  LocalDateTime dueFrom, LocalDateTime dueTo,
+                                  LocalDateTime afterDue, Long afterId, Limit limit) {
+        List<TaskDTO> page = new ArrayList<>();
+        boolean inUndatedTail = afterId != null && afterDue == null;
+        if (!inUndatedTail) {
+            page.addAll(query(visibleTo, completed, priority, dueFrom, dueTo, afterDue, afterId, true, limit));
+        }
+        // Undated tasks sort last and can never match a due date range
+        boolean needTail = dueFrom == null && dueTo == null && (!limit.isLimited() || page.size() < limit.max());
+        if (needTail) {
+            Limit remaining = limit.isLimited() ? Limit.of(limit.max() - page.size()) : limit;
+            page.addAll(query(visibleTo, completed, priority, null, null, null,
+                    inUndatedTail ? afterId : null, false, remaining));
+        }
+        return page;
+    }
+
+    private List<TaskDTO> query(Long visibleTo, Boolean completed, Integer priority,
+                                LocalDateTime dueFrom, LocalDateTime dueTo,
+                                LocalDateTime afterDue, Long afterId, boolean dated, Limit limit) {
+        StringBuilder jpql = new StringBuilder(TaskRepository.SELECT_DTO);
+        Map<String, Object> params = new HashMap<>();
+        jpql.append(dated ? "where t.dueDate is not null" : "where t.dueDate is null");
+        if (visibleTo != null) {
+            jpql.append(" and t.id in (select x.id from Task x where x.owner.id = :visibleTo"
+                    + " union select y.id from Task y where y.assignee.id = :visibleTo)");
+            params.put("visibleTo", visibleTo);
+        }
+        if (completed != null) {
+            jpql.append(" and t.completed = :completed");
+            params.put("completed", completed);
+        }
+        if (priority != null) {
+            jpql.append(" and t.priority = :priority");
+            params.put("priority", priority);
+        }
+        if (dueFrom != null) {
+            jpql.append(" and t.dueDate >= :dueFrom");
+            params.put("dueFrom", dueFrom);
+        }
+        if (dueTo != null) {
+            jpql.append(" and t.dueDate <= :dueTo");
+            params.put("dueTo", dueTo);
+        }
+        if (afterDue != null) {
+            // Written as a range on dueDate plus a tie-breaker so the (due_date, id) index bounds the scan
+            jpql.append(" and t.dueDate >= :afterDue and (t.dueDate > :afterDue or t.id > :afterId)");
+            params.put("afterDue", afterDue);
+            params.put("afterId", afterId);
+        } else if (afterId != null) {
+            jpql.append(" and t.id > :afterId");
+            params.put("afterId", afterId);
+        }
+        jpql.append(dated ? " order by t.dueDate asc, t.id asc" : " order by t.id asc");
+
+        TypedQuery<TaskDTO> query = entityManager.createQuery(jpql.toString(), TaskDTO.class);
+        params.forEach(query::setParameter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Optional<PreviousRow> updateIfPermitted(Long id, Long callerId, boolean admin, Map<String, Object> columns,
+                                                   long changeVersion, LocalDateTime updatedAt, Long expectedVersion) {
+        // Only the given columns are written; names come from TaskService, never from the request
+        StringBuilder sql = new StringBuilder("select " + PREVIOUS_ROW + " from old table (update task set ");
+        Map<String, Object> params = new HashMap<>();
+        int i = 0;
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            sql.append(column.getKey()).append(" = :c").append(i).append(", ");
+            params.put("c" + i++, column.getValue());
+        }
+        sql.append("change_version = :changeVersion, updated_at = :updatedAt, version = coalesce(version, 0) + 1"
+                + " where id = :id and (owner_id = :callerId or assignee_id = :callerId or :admin = true)");
+        if (expectedVersion != null) {
+            sql.append(" and version = :expectedVersion");
+            params.put("expectedVersion", expectedVersion);
+        }
+        sql.append(")");
+        params.put("changeVersion", changeVersion);
+        params.put("updatedAt", updatedAt);
+        params.put("id", id);
+        params.put("callerId", callerId);
+        params.put("admin", admin);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        return mutate(id, query);
+    }
+
+    @Override
+    public Optional<PreviousRow> deleteIfPermitted(Long id, Long callerId, boolean admin) {
+        Query query = entityManager.createNativeQuery("select " + PREVIOUS_ROW + " from old table ("
+                + "delete from task where id = :id and (owner_id = :callerId or :admin = true))")
+                .setParameter("id", id).setParameter("callerId", callerId).setParameter("admin", admin);
+        return mutate(id, query);
+    }
+
+    @Override
+    public Set<Long> updateAllAtPreviousVersion(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return Set.of();
+        }
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("update task set title = ?,"
+                    + " description = ?, due_date = ?, completed = ?, priority = ?, owner_id = ?, assignee_id = ?,"
+                    + " change_version = ?, updated_at = ?, version = ? where id = ? and version = ?")) {
+                for (Task task : tasks) {
+                    statement.setString(1, task.getTitle());
+                    statement.setString(2, task.getDescription());
+                    statement.setObject(3, task.getDueDate(), Types.TIMESTAMP);
+                    statement.setBoolean(4, task.isCompleted());
+                    statement.setInt(5, task.getPriority());
+                    statement.setObject(6, task.getOwner() != null ? task.getOwner().getId() : null, Types.BIGINT);
+                    statement.setObject(7, task.getAssignee() != null ? task.getAssignee().getId() : null, Types.BIGINT);
+                    statement.setLong(8, task.getChangeVersion());
+                    statement.setObject(9, task.getUpdatedAt(), Types.TIMESTAMP);
+                    statement.setLong(10, task.getVersion());
+                    statement.setLong(11, task.getId());
+                    statement.setLong(12, task.getVersion() - 1);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+        Set<Long> rejected = new HashSet<>();
+        List<Long> written = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            (counts[i] == 0 ? rejected : written).add(tasks.get(i).getId());
+        }
+        evictTasks(written);
+        return rejected;
+    }
+
+    private Optional<PreviousRow> mutate(Long id, Query query) {
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        evictTasks(List.of(id));
+        Object[] row = (Object[]) rows.get(0);
+        return Optional.of(new PreviousRow((String) row[0], (String) row[1], toLocalDateTime(row[2]),
+                (Boolean) row[3], ((Number) row[4]).intValue(), toLong(row[5]), toLong(row[6]), toLong(row[7])));
+    }
+
+    // The statements bypass Hibernate, so the tasks' second-level cache entries are dropped now and again
+    // once the transaction ends, in case a concurrent reader cached the old row in between
+    private void evictTasks(List<Long> ids) {
+        evictNow(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(ids);
+                }
+            });
+        }
+    }
+
+    private void evictNow(List<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(Task.class, id));
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    // Native queries hand TIMESTAMP columns back as java.sql.Timestamp
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
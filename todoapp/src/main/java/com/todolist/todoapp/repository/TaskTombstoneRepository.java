@@ -0,0 +1,19 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Query("select t.taskId from TaskTombstone t where t.userId is null"
+            + " and t.changeVersion > :since and t.changeVersion <= :upTo")
+    List<Long> findDeletedBetween(@Param("since") long since, @Param("upTo") long upTo);
+
+    @Query("select t.taskId from TaskTombstone t where t.userId = :userId"
+            + " and t.changeVersion > :since and t.changeVersion <= :upTo")
+    List<Long> findRemovedBetween(@Param("userId") Long userId, @Param("since") long since, @Param("upTo") long upTo);
+}
@@ -1,9 +1,17 @@
 package com.todolist.todoapp.repository;
 
 import com.todolist.todoapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.Optional;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsernameIgnoreCase(String username);
-}
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    // Query cache keeps the matching ids, the rows come from the user region; any APP_USER write
+    // invalidates the cached results
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<User> findByUsernameNormalizedIn(Collection<String> usernamesNormalized);
+}
@@ -0,0 +1,13 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.model.User;
+
+import java.util.Optional;
+
+// Lookups that go through Hibernate's natural-id API, implemented in UserRepositoryImpl
+public interface UserRepositoryCustom {
+
+    // Case-insensitive lookup by username. Served from the second-level cache once the user has been
+    // loaded; otherwise an index seek on username_normalized.
+    Optional<User> lookupByUsername(String username);
+}
@@ -0,0 +1,27 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The natural-id API needs a live Session; outside a transaction the shared EntityManager has none
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> lookupByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(User.normalizeUsername(username));
+    }
+}
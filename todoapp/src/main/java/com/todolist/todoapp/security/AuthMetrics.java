@@ -0,0 +1,33 @@
+package com.todolist.todoapp.security;
+
+import com.todolist.todoapp.service.CustomUserDetailsService;
+import com.todolist.todoapp.service.PrincipalCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Hit/miss counts of the token and principal caches, read from their own counters at scrape time
+@Component
+public class AuthMetrics implements MeterBinder {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.jwt.cache.requests", jwtUtil, JwtUtil::getCacheHits).tag("result", "hit").register(registry);
+        FunctionCounter.builder("auth.jwt.cache.requests", jwtUtil, JwtUtil::getCacheMisses).tag("result", "miss").register(registry);
+
+        PrincipalCache principals = customUserDetailsService.getPrincipalCache();
+        FunctionCounter.builder("auth.principal.cache.requests", principals, PrincipalCache::getHits).tag("result", "hit").register(registry);
+        FunctionCounter.builder("auth.principal.cache.requests", principals, PrincipalCache::getMisses).tag("result", "miss").register(registry);
+        FunctionCounter.builder("auth.principal.cache.evictions", principals, PrincipalCache::getEvictions).register(registry);
+        Gauge.builder("auth.principal.cache.size", principals, PrincipalCache::size).register(registry);
+    }
+}
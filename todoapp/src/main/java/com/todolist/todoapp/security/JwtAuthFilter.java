@@ -1,6 +1,7 @@
 package com.todolist.todoapp.security;
 
 import com.todolist.todoapp.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +16,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -25,6 +27,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
 @Override
 protected void doFilterInternal(
         @org.springframework.lang.NonNull HttpServletRequest request,
@@ -32,9 +37,15 @@ protected void doFilterInternal(
         @org.springframework.lang.NonNull FilterChain filterChain)
         throws ServletException, IOException {
     String jwt = parseJwt(request);
-    if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-        String username = jwtUtil.getUsernameFromToken(jwt);
-        UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+    VerifiedToken token = null;
+    if (jwt != null) {
+        long start = System.nanoTime();
+        token = jwtUtil.verify(jwt);
+        meterRegistry.timer("auth.jwt.verify", "outcome", token != null ? "valid" : "invalid")
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    if (token != null) {
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername(token.username());
         UsernamePasswordAuthenticationToken authentication =
                 new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,64 @@
+package com.todolist.todoapp.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU cache of already verified tokens, keyed by the SHA-256 digest of the raw token
+// so that bearer tokens themselves are never kept in memory.
+public class JwtTokenCache {
+
+    private final Map<String, VerifiedToken> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public JwtTokenCache(int maxSize) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public VerifiedToken get(String token) {
+        String key = digest(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            entries.remove(key);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        entries.put(digest(token), verified);
+    }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    public int size() { return entries.size(); }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.todolist.todoapp.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.util.Date;
 import java.security.Key;
@@ -11,8 +12,13 @@ public class JwtUtil {
     private final String jwtSecret = "your-256-bit-secret-your-256-bit-secret"; // must be at least 256 bits
     private final long jwtExpirationMs = 86400000;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Key and parser are immutable and thread-safe, so build them once
+    private final Key signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    private final JwtTokenCache tokenCache;
+
+    public JwtUtil(@Value("${jwt.cache.max-size:10000}") int cacheMaxSize) {
+        this.tokenCache = new JwtTokenCache(cacheMaxSize);
     }
 
     public String generateToken(String username) {
@@ -20,25 +26,39 @@ public class JwtUtil {
             .setSubject(username)
             .setIssuedAt(new Date())
             .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
     }
 
+    // Parses and verifies the token once, returning subject and expiry, or null if invalid.
+    // Repeat calls with the same token are served from the cache until it expires.
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getExpiration());
+            tokenCache.put(token, verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verify(authToken) != null;
     }
-}
\ No newline at end of file
+
+    public long getCacheHits() { return tokenCache.getHits(); }
+
+    public long getCacheMisses() { return tokenCache.getMisses(); }
+}
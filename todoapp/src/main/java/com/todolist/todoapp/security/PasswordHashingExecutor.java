@@ -0,0 +1,61 @@
+package com.todolist.todoapp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Small fixed pool with a bounded queue for work that is dominated by BCrypt (login, registration).
+// Request threads hand the work over and are released, so a burst of logins can use at most
+// `threads` cores and never occupies the Tomcat workers that serve the task API. When the pool and
+// its queue are full, submit() rejects immediately and the caller answers 503.
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(@Value("${auth.hashing.threads:0}") int threads,
+                                   @Value("${auth.hashing.queue-capacity:16}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        // 0 means half the cores, leaving the rest to request handling
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "auth.hashing", Tags.empty()).bindTo(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected").register(meterRegistry);
+    }
+
+    // Throws RejectedExecutionException right away when the pool is saturated
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
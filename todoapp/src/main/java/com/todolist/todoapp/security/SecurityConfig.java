@@ -1,6 +1,9 @@
 package com.todolist.todoapp.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,7 +38,11 @@ public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         )
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(auth -> auth
+            // Async dispatches (SSE streams) were already authorized on the original request
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
             .requestMatchers("/api/auth/**", "/h2-console/**").permitAll()
+            // Scraped without a JWT; these paths only exist on the localhost-bound management port
+            .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
             .requestMatchers("/api/tasks/**").authenticated()
             .anyRequest().authenticated()
         );
@@ -52,7 +59,7 @@ public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:5173"));
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setExposedHeaders(List.of("*"));
         configuration.setAllowCredentials(true);
@@ -61,9 +68,11 @@ public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         source.registerCorsConfiguration("/api/**", configuration);
         return source;
     }
+    // Raising auth.bcrypt.strength takes effect for existing users on their next login, when
+    // DaoAuthenticationProvider sees upgradeEncoding() and CustomUserDetailsService stores the new hash
     @Bean
-public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry, @Value("${auth.bcrypt.strength:10}") int strength) {
+    return new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), meterRegistry);
 }
 
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.todolist.todoapp.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Records how long password hashing takes: matches() runs on every login, encode() on registration
+// and password changes. With BCrypt this is usually the most expensive part of a login.
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encode;
+    private final Timer matched;
+    private final Timer mismatched;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encode = Timer.builder("auth.password.encode").register(registry);
+        this.matched = Timer.builder("auth.password.verify").tag("outcome", "match").register(registry);
+        this.mismatched = Timer.builder("auth.password.verify").tag("outcome", "mismatch").register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encode.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matched : mismatched).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
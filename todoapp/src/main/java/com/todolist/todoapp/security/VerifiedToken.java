@@ -0,0 +1,11 @@
+package com.todolist.todoapp.security;
+
+import java.util.Date;
+
+// Result of a successful JWT verification: the subject and when the token stops being valid
+public record VerifiedToken(String username, Date expiresAt) {
+
+    public boolean isExpired(long nowMs) {
+        return expiresAt != null && expiresAt.getTime() <= nowMs;
+    }
+}
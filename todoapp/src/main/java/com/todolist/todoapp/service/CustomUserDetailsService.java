@@ -2,23 +2,79 @@ package com.todolist.todoapp.service;
 
 import com.todolist.todoapp.model.User;
 import com.todolist.todoapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final PrincipalCache principalCache;
+
+    public CustomUserDetailsService(@Value("${auth.principal-cache.max-size:10000}") int maxSize,
+                                    @Value("${auth.principal-cache.ttl-ms:300000}") long ttlMs) {
+        this.principalCache = new PrincipalCache(maxSize, ttlMs);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsernameIgnoreCase(username.trim()) // Remove .toLowerCase()
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        PrincipalCache.Principal principal = loadPrincipal(username);
+        // Always hand out a fresh UserDetails, the caller may erase its credentials
         return org.springframework.security.core.userdetails.User
-            .withUsername(user.getUsername())
-            .password(user.getPassword())
-            .roles(user.getRole())
+            .withUsername(principal.username())
+            .password(principal.password())
+            .roles(principal.role())
+            .build();
+    }
+
+    // Timed as auth.user.load, tagged with whether the cache answered
+    public PrincipalCache.Principal loadPrincipal(String username) throws UsernameNotFoundException {
+        long start = System.nanoTime();
+        String cache = "hit";
+        try {
+            PrincipalCache.Principal principal = principalCache.get(username);
+            if (principal == null) {
+                cache = "miss";
+                User user = userRepository.lookupByUsername(username.trim())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+                principal = new PrincipalCache.Principal(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+                principalCache.put(principal);
+            }
+            return principal;
+        } finally {
+            meterRegistry.timer("auth.user.load", "cache", cache).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login whose stored hash needs upgrading;
+    // newPassword is already encoded
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.lookupByUsername(userDetails.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        evictUser(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+            .password(newPassword)
             .build();
     }
-}
\ No newline at end of file
+
+    // Must be called whenever the app changes a user's username, password or role
+    public void evictUser(String username) {
+        principalCache.invalidate(username);
+    }
+
+    public PrincipalCache getPrincipalCache() {
+        return principalCache;
+    }
+}
@@ -0,0 +1,19 @@
+package com.todolist.todoapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "tasks.reminders.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderSink implements TaskReminderSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public void remind(TaskReminder reminder) {
+        logger.info("Task {} {}: due {}, users {}", reminder.taskId(), reminder.type().name().toLowerCase(),
+                reminder.dueDate(), reminder.userIds());
+    }
+}
@@ -0,0 +1,75 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.model.User;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded, TTL based cache of the fields needed to rebuild a UserDetails, keyed by normalized username.
+// Only plain values are stored: Spring erases credentials on the UserDetails it hands out,
+// so the cached entry must never be the object returned to callers.
+// The app evicts an entry when it creates a user or rehashes a password. A role or password changed
+// anywhere else (H2 console, another instance) is picked up once the entry's TTL runs out.
+public class PrincipalCache {
+
+    public record Principal(Long id, String username, String password, String role) {}
+
+    private record Entry(Principal principal, long expiresAtMs) {}
+
+    private final Map<String, Entry> entries;
+    private final long ttlMs;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrincipalCache(int maxSize, long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public Principal get(String username) {
+        String key = User.normalizeUsername(username);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMs() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal();
+    }
+
+    public void put(Principal principal) {
+        entries.put(User.normalizeUsername(principal.username()), new Entry(principal, System.currentTimeMillis() + ttlMs));
+    }
+
+    public void invalidate(String username) {
+        if (username != null && entries.remove(User.normalizeUsername(username)) != null) {
+            evictions.increment();
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    public long getEvictions() { return evictions.sum(); }
+
+    public int size() { return entries.size(); }
+}
@@ -0,0 +1,95 @@
+package com.todolist.todoapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out the change versions stored on tasks and tombstones. Versions are taken before commit, so
+// a later version can become visible before an earlier one; the high-water mark therefore stops just
+// below the oldest version whose transaction is still open, and a client that syncs up to it can
+// never skip a change that commits afterwards.
+@Component
+public class TaskChangeClock {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Not synchronized: the first call loads from the database while holding the lock, which would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean loaded;
+    private long last;
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+
+    // Must be called inside a transaction; the version stays in flight until that transaction completes
+    public long next() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change versions must be taken inside a transaction");
+        }
+        lock.lock();
+        try {
+            load();
+            long version = ++last;
+            inFlight.add(version);
+            taken().add(version);
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Every version at or below this one is either committed or rolled back
+    public long highWaterMark() {
+        lock.lock();
+        try {
+            load();
+            return inFlight.isEmpty() ? last : inFlight.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // One list and one synchronization per transaction, however many versions it takes
+    @SuppressWarnings("unchecked")
+    private List<Long> taken() {
+        List<Long> taken = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (taken == null) {
+            List<Long> versions = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, versions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeClock.this);
+                    release(versions);
+                }
+            });
+            taken = versions;
+        }
+        return taken;
+    }
+
+    private void release(List<Long> versions) {
+        lock.lock();
+        try {
+            inFlight.removeAll(versions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Resume after the highest version already stored
+    private void load() {
+        if (!loaded) {
+            last = jdbcTemplate.queryForObject("select greatest("
+                    + "(select coalesce(max(change_version), 0) from task),"
+                    + " (select coalesce(max(change_version), 0) from task_tombstone))", Long.class);
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.todolist.todoapp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-user change versions for task listings. A user's version moves whenever a task they own or are
+// assigned changes; the global version moves on every change and is what admins see. Versions live in
+// memory only, so the ETag also carries the process epoch to stay unique across restarts.
+@Component
+public class TaskChangeTracker {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final Map<Long, AtomicLong> userVersions = new ConcurrentHashMap<>();
+
+    // Fed by the event bus, which only delivers after commit, so a listing can never be
+    // tagged with a version whose data is not visible yet
+    public TaskChangeTracker(TaskEventBus eventBus) {
+        eventBus.subscribe(this::changed);
+    }
+
+    public String etag(Long userId, boolean admin, String variant) {
+        long version = admin ? globalVersion.get() : userVersions.computeIfAbsent(userId, id -> new AtomicLong()).get();
+        return "\"" + epoch + "-" + (admin ? "a" : "u" + userId) + "-" + version + "-" + Integer.toHexString(variant.hashCode()) + "\"";
+    }
+
+    private void changed(TaskEvent event) {
+        globalVersion.incrementAndGet();
+        for (Long userId : event.userIds()) {
+            userVersions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
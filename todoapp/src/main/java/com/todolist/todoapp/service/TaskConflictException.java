@@ -0,0 +1,13 @@
+package com.todolist.todoapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// An edit was based on a version of the task that has since been changed by someone else
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TaskConflictException extends RuntimeException {
+
+    public TaskConflictException(Long taskId, Long expectedVersion, Long currentVersion) {
+        super("Task " + taskId + " is at version " + currentVersion + ", not " + expectedVersion);
+    }
+}
@@ -0,0 +1,35 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Position in the (dueDate, id) ordering of a task listing, encoded as an opaque URL-safe string.
+// Tasks without a due date sort last, so a null dueDate means the cursor is already in that tail.
+record TaskCursor(LocalDateTime dueDate, long id) {
+
+    private static final String NO_DUE_DATE = "-";
+
+    static TaskCursor of(TaskDTO task) {
+        return new TaskCursor(task.getDueDate(), task.getId());
+    }
+
+    String encode() {
+        String raw = (dueDate != null ? dueDate.toString() : NO_DUE_DATE) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            String due = raw.substring(0, sep);
+            long id = Long.parseLong(raw.substring(sep + 1));
+            return new TaskCursor(NO_DUE_DATE.equals(due) ? null : LocalDateTime.parse(due), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
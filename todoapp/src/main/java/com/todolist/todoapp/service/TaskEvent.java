@@ -0,0 +1,16 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskDTO;
+
+import java.util.Set;
+
+// A committed task mutation. userIds holds the owner and assignee before and after the change,
+// so everyone who could see the task either way gets told; task is null for deletions.
+public record TaskEvent(Type type, Long taskId, TaskDTO task, Set<Long> userIds) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public boolean isVisibleTo(Long userId, boolean admin) {
+        return admin || userIds.contains(userId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.todolist.todoapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-process fan-out of task mutations from TaskService. Listeners run synchronously on the publishing
+// thread and must not block; anything slow has to hand the event off to its own queue.
+@Component
+public class TaskEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventBus.class);
+
+    private final List<Consumer<TaskEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<TaskEvent> listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Consumer<TaskEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    // Inside a transaction delivery waits until commit, so listeners never see a change that gets rolled back
+    public void publish(List<TaskEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(events);
+                }
+            });
+        } else {
+            deliver(events);
+        }
+    }
+
+    private void deliver(List<TaskEvent> events) {
+        for (Consumer<TaskEvent> listener : listeners) {
+            for (TaskEvent event : events) {
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) {
+                    logger.warn("Task event listener failed for task {}", event.taskId(), e);
+                }
+            }
+        }
+    }
+}
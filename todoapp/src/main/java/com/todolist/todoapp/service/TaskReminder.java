@@ -0,0 +1,15 @@
+package com.todolist.todoapp.service;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// A due-date notice for an open task: UPCOMING some lead time before the due date, OVERDUE once it has
+// passed. userIds are the task's owner and assignee.
+public record TaskReminder(Type type, Long taskId, LocalDateTime dueDate, Set<Long> userIds) {
+
+    public enum Type { UPCOMING, OVERDUE }
+
+    public boolean isVisibleTo(Long userId, boolean admin) {
+        return admin || userIds.contains(userId);
+    }
+}
@@ -0,0 +1,311 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskDue;
+import com.todolist.todoapp.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Due-date reminders without scanning the task table. Open tasks due within the next horizon-hours sit in
+// a hashed timing wheel, one timer per task: first UPCOMING at lead-minutes before the due date, then
+// OVERDUE at it. The wheel is filled at startup and topped up by a range query on the due date index as
+// the horizon moves; creates, updates and deletes reach it through the event bus. Each tick fires what has
+// come due to the configured TaskReminderSink. Memory is bounded by the horizon and by max-scheduled,
+// past which the furthest tasks are left out (and counted).
+//
+// Only due dates that pass while the app is running are reported: tasks already overdue at startup or
+// given a past due date are not scheduled.
+//
+// A refill runs its query without holding the scheduler's lock, so events applied after commit on request
+// threads never wait for it. The horizon moves up front; events that arrive meanwhile are applied at once
+// and their change versions remembered, and each chunk of query rows is applied under the lock only where
+// it is newer than what the wheel or those events already hold.
+@Component
+public class TaskReminderScheduler implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskReminderScheduler.class);
+
+    private static final int REFILL_CHUNK = 1000;
+    // Recorded for a deleted task, so no row read before the delete can schedule it again
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Kept per task in the wheel; ids rather than usernames so a million of them stay small
+    private record Due(TaskReminder.Type next, LocalDateTime dueDate, Long ownerId, Long assigneeId, long changeVersion) {}
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private List<TaskReminderSink> sinks;
+
+    @Value("${tasks.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tasks.reminders.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${tasks.reminders.wheel-size:65536}")
+    private int wheelSize;
+
+    @Value("${tasks.reminders.horizon-hours:24}")
+    private long horizonHours;
+
+    @Value("${tasks.reminders.lead-minutes:60}")
+    private long leadMinutes;
+
+    @Value("${tasks.reminders.max-scheduled:1000000}")
+    private int maxScheduled;
+
+    private final TaskEventBus eventBus;
+    private final Counter fired;
+    private final Counter dropped;
+    private TimingWheel<Due> wheel;
+    private LocalDateTime loadedUntil;
+    // Change versions of events applied while a refill is running; null otherwise
+    private Map<Long, Long> appliedDuringRefill;
+    private ScheduledExecutorService ticker;
+
+    public TaskReminderScheduler(TaskEventBus eventBus, MeterRegistry meterRegistry) {
+        this.eventBus = eventBus;
+        this.fired = Counter.builder("tasks.reminders.fired").register(meterRegistry);
+        this.dropped = Counter.builder("tasks.reminders.dropped").register(meterRegistry);
+        Gauge.builder("tasks.reminders.scheduled", this, TaskReminderScheduler::scheduled).register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            wheel = new TimingWheel<>(wheelSize, toTick(System.currentTimeMillis()));
+            loadedUntil = LocalDateTime.now();
+        }
+        eventBus.subscribe(this::apply);
+        refillIfDue(LocalDateTime.now());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advanceTo(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                logger.error("Reminder tick failed", e);
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Fires everything due by now, topping the wheel up first once half the horizon has been used
+    void advanceTo(LocalDateTime now) {
+        refillIfDue(now);
+        List<TaskReminder> reminders = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(toTick(toMillis(now)), (taskId, due) -> {
+                reminders.add(new TaskReminder(due.next(), taskId, due.dueDate(), userIds(due.ownerId(), due.assigneeId())));
+                if (due.next() == TaskReminder.Type.UPCOMING) {
+                    wheel.schedule(taskId, deadline(due.dueDate()), new Due(TaskReminder.Type.OVERDUE,
+                            due.dueDate(), due.ownerId(), due.assigneeId(), due.changeVersion()));
+                }
+            });
+        }
+        for (TaskReminder reminder : reminders) {
+            fired.increment();
+            for (TaskReminderSink sink : sinks) {
+                try {
+                    sink.remind(reminder);
+                } catch (RuntimeException e) {
+                    logger.warn("Reminder sink failed for task {}", reminder.taskId(), e);
+                }
+            }
+        }
+    }
+
+    synchronized int scheduled() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    private void refillIfDue(LocalDateTime now) {
+        LocalDateTime[] range = beginRefill(now);
+        if (range == null) {
+            return;
+        }
+        boolean done = false;
+        try {
+            refill(range[0], range[1], now);
+            done = true;
+        } finally {
+            endRefill(range[0], done);
+        }
+    }
+
+    // The (from, to] range of a due refill, or null. The horizon moves right away, so from here on events
+    // schedule tasks due up to it themselves.
+    synchronized LocalDateTime[] beginRefill(LocalDateTime now) {
+        if (appliedDuringRefill != null || !now.plus(Duration.ofHours(horizonHours).dividedBy(2)).isAfter(loadedUntil)) {
+            return null;
+        }
+        LocalDateTime from = loadedUntil.isAfter(now) ? loadedUntil : now;
+        loadedUntil = now.plusHours(horizonHours);
+        appliedDuringRefill = new HashMap<>();
+        return new LocalDateTime[] { from, loadedUntil };
+    }
+
+    synchronized void endRefill(LocalDateTime from, boolean done) {
+        appliedDuringRefill = null;
+        if (!done) {
+            // Retried on the next tick
+            loadedUntil = from;
+        }
+    }
+
+    // Streams the range outside the lock and applies it chunk by chunk
+    private void refill(LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        long start = System.nanoTime();
+        int[] loaded = new int[1];
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            List<TaskDue> chunk = new ArrayList<>(REFILL_CHUNK);
+            try (Stream<TaskDue> tasks = taskRepository.streamOpenDueBetween(from, to)) {
+                tasks.forEach(task -> {
+                    chunk.add(task);
+                    if (chunk.size() == REFILL_CHUNK) {
+                        loaded[0] += load(chunk, now);
+                        chunk.clear();
+                    }
+                });
+            }
+            loaded[0] += load(chunk, now);
+        });
+        logger.info("Scheduled reminders for {} tasks due until {} in {} ms", loaded[0], to,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // A row read before a concurrent event must not undo it: it only counts where its version is newer
+    synchronized int load(List<TaskDue> tasks, LocalDateTime now) {
+        int loaded = 0;
+        for (TaskDue task : tasks) {
+            long version = task.changeVersion() != null ? task.changeVersion() : 0;
+            Long applied = appliedDuringRefill != null ? appliedDuringRefill.get(task.id()) : null;
+            if (applied != null && applied >= version) {
+                continue;
+            }
+            if (schedule(task.id(), task.dueDate(), task.ownerId(), task.assigneeId(), task.changeVersion(), now)) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private void apply(TaskEvent event) {
+        TaskDTO task = event.task();
+        boolean open = event.type() != TaskEvent.Type.DELETED && !task.isCompleted() && task.getDueDate() != null;
+        // Resolved before taking the lock; a principal cache miss reads the user
+        Long ownerId = open ? userId(task.getOwner()) : null;
+        Long assigneeId = open ? userId(task.getAssignee()) : null;
+        synchronized (this) {
+            if (appliedDuringRefill != null) {
+                long version = event.type() == TaskEvent.Type.DELETED ? DELETED
+                        : task.getChangeVersion() != null ? task.getChangeVersion() : 0;
+                appliedDuringRefill.merge(event.taskId(), version, Math::max);
+            }
+            if (!open || task.getDueDate().isAfter(loadedUntil)) {
+                // Tasks beyond the horizon are picked up by a later refill
+                wheel.cancel(event.taskId());
+                return;
+            }
+            schedule(task.getId(), task.getDueDate(), ownerId, assigneeId, task.getChangeVersion(), LocalDateTime.now());
+        }
+    }
+
+    // Caller holds the lock. O(1): one map lookup and a list splice in the wheel.
+    private boolean schedule(Long taskId, LocalDateTime dueDate, Long ownerId, Long assigneeId, Long changeVersion,
+                             LocalDateTime now) {
+        long version = changeVersion != null ? changeVersion : 0;
+        Due current = wheel.get(taskId);
+        if (current != null && current.changeVersion() >= version) {
+            return false;
+        }
+        if (!dueDate.isAfter(now)) {
+            wheel.cancel(taskId);
+            return false;
+        }
+        if (current == null && wheel.size() >= maxScheduled) {
+            dropped.increment();
+            return false;
+        }
+        LocalDateTime upcomingAt = dueDate.minusMinutes(leadMinutes);
+        if (current != null && current.dueDate().equals(dueDate)) {
+            // Same due date: keep whichever reminder is next, so an edit does not repeat an UPCOMING
+            wheel.schedule(taskId, deadline(current.next() == TaskReminder.Type.UPCOMING ? upcomingAt : dueDate),
+                    new Due(current.next(), dueDate, ownerId, assigneeId, version));
+        } else {
+            // Inside the lead time already: UPCOMING fires on the next tick
+            wheel.schedule(taskId, deadline(upcomingAt), new Due(TaskReminder.Type.UPCOMING, dueDate, ownerId, assigneeId, version));
+        }
+        return true;
+    }
+
+    private Long userId(String username) {
+        return username != null ? customUserDetailsService.loadPrincipal(username).id() : null;
+    }
+
+    private static Set<Long> userIds(Long ownerId, Long assigneeId) {
+        Set<Long> ids = new HashSet<>();
+        if (ownerId != null) ids.add(ownerId);
+        if (assigneeId != null) ids.add(assigneeId);
+        return ids;
+    }
+
+    // First tick at or after the given time, so a reminder never fires early
+    private long deadline(LocalDateTime at) {
+        return Math.floorDiv(toMillis(at) + tickMs - 1, tickMs);
+    }
+
+    private long toTick(long millis) {
+        return Math.floorDiv(millis, tickMs);
+    }
+
+    private static long toMillis(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public void destroy() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+}
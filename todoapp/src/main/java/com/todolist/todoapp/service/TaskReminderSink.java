@@ -0,0 +1,8 @@
+package com.todolist.todoapp.service;
+
+// Where TaskReminderScheduler delivers reminders; tasks.reminders.sink picks the implementation
+// (log, sse or webhook). Called on the scheduler's thread, so implementations must not block.
+public interface TaskReminderSink {
+
+    void remind(TaskReminder reminder);
+}
@@ -0,0 +1,311 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.model.User;
+import com.todolist.todoapp.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory inverted index over task titles and descriptions. Built from the database at startup and
+// kept current from the event bus, so searches never touch the database. Every query word is matched
+// as a prefix of an indexed word and all of them must match; hits are ranked by tf-idf with title
+// words weighted above description words and exact words above prefix matches.
+@Component
+public class TaskSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+    // A one-letter prefix can expand to most of the vocabulary; wider query words are not used to pick candidates
+    private static final int MAX_PREFIX_EXPANSION = 256;
+    // Deleted ids remembered so a late update cannot re-index them; events are late by milliseconds,
+    // so only the most recent deletions are needed
+    private static final int MAX_TOMBSTONES = 10_000;
+
+    private record Doc(TaskDTO task, Map<String, Integer> weights, String owner, String assignee) {}
+
+    private record Hit(TaskDTO task, double score) {}
+
+    // A query word with the indexed words it is a prefix of; width counts them up to MAX_PREFIX_EXPANSION + 1
+    private record QueryWord(String word, NavigableMap<String, Map<Long, Integer>> terms, int width) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // Normalized username -> ids of tasks the user owns or is assigned
+    private final Map<String, Set<Long>> userDocs = new HashMap<>();
+    private final Set<Long> removed = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAX_TOMBSTONES;
+        }
+    });
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public TaskSearchIndex(TaskEventBus eventBus) {
+        eventBus.subscribe(this::apply);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            postings.clear();
+            userDocs.clear();
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<TaskDTO> tasks = taskRepository.streamAll()) {
+                    tasks.forEach(this::add);
+                }
+            });
+            logger.info("Indexed {} tasks ({} words) in {} ms", docs.size(), postings.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Best matches first. username restricts hits to tasks that user owns or is assigned; null means every task.
+    public List<TaskDTO> search(String query, String username, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> scope = username != null
+                    ? userDocs.getOrDefault(User.normalizeUsername(username), Set.of())
+                    : docs.keySet();
+            List<QueryWord> expanded = words.stream().map(this::expand).toList();
+            Set<Long> candidates = rarestCandidates(expanded, scope);
+            PriorityQueue<Hit> top = new PriorityQueue<>(ranking().reversed());
+            for (Long id : candidates) {
+                Doc doc = docs.get(id);
+                double score = score(id, doc, expanded);
+                if (score > 0) {
+                    top.add(new Hit(doc.task(), score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(ranking());
+            return hits.stream().map(Hit::task).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Higher score first, newer task first on ties
+    private static Comparator<Hit> ranking() {
+        return Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(hit -> hit.task().getId(), Comparator.reverseOrder());
+    }
+
+    private QueryWord expand(String word) {
+        NavigableMap<String, Map<Long, Integer>> terms = postings.subMap(word, true, word + Character.MAX_VALUE, true);
+        int width = 0;
+        for (Iterator<String> it = terms.keySet().iterator(); it.hasNext() && width <= MAX_PREFIX_EXPANSION; it.next()) {
+            width++;
+        }
+        return new QueryWord(word, terms, width);
+    }
+
+    // Tasks in scope matching the query word with the fewest matches; the other words are checked per task.
+    // Each posting is intersected with the scope by iterating the smaller of the two. A word is only used
+    // when its candidates are complete: one expanding past MAX_PREFIX_EXPANSION words, or matching at least
+    // as many tasks as the best so far, is left to the per-task check, and if no word qualifies the whole
+    // scope is scanned.
+    private Set<Long> rarestCandidates(List<QueryWord> words, Set<Long> scope) {
+        Set<Long> best = scope;
+        for (QueryWord word : words) {
+            if (best.isEmpty() || word.width() == 0) {
+                return Set.of();
+            }
+            if (word.width() > MAX_PREFIX_EXPANSION) {
+                continue;
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Map<Long, Integer> posting : word.terms().values()) {
+                if (posting.size() <= scope.size()) {
+                    for (Long id : posting.keySet()) {
+                        if (scope.contains(id)) ids.add(id);
+                    }
+                } else {
+                    for (Long id : scope) {
+                        if (posting.containsKey(id)) ids.add(id);
+                    }
+                }
+                if (ids.size() >= best.size()) {
+                    break;
+                }
+            }
+            if (ids.size() < best.size()) {
+                best = ids;
+            }
+        }
+        return best;
+    }
+
+    // Sum over query words of the best matching indexed word; 0 unless every query word matches. A word's
+    // expansions are looked up in the postings, or the task's own words are walked when it has fewer.
+    private double score(Long id, Doc doc, List<QueryWord> words) {
+        double total = 0;
+        for (QueryWord word : words) {
+            double best = 0;
+            if (word.width() <= doc.weights().size()) {
+                for (Map.Entry<String, Map<Long, Integer>> entry : word.terms().entrySet()) {
+                    Integer weight = entry.getValue().get(id);
+                    if (weight != null) {
+                        best = Math.max(best, weigh(entry.getKey(), word.word(), weight));
+                    }
+                }
+            } else {
+                for (Map.Entry<String, Integer> entry : doc.weights().entrySet()) {
+                    if (entry.getKey().startsWith(word.word())) {
+                        best = Math.max(best, weigh(entry.getKey(), word.word(), entry.getValue()));
+                    }
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private double weigh(String term, String word, int weight) {
+        double idf = Math.log(1 + (double) docs.size() / postings.get(term).size());
+        return weight * idf * (term.length() == word.length() ? 1 : PREFIX_FACTOR);
+    }
+
+    private void apply(TaskEvent event) {
+        lock.writeLock().lock();
+        try {
+            Doc current = docs.get(event.taskId());
+            if (event.type() == TaskEvent.Type.DELETED) {
+                removed.add(event.taskId());
+                remove(event.taskId());
+                return;
+            }
+            // Events from concurrent commits can arrive out of order; keep the newest version, and
+            // nothing that arrives after the task's deletion
+            if (removed.contains(event.taskId())) {
+                return;
+            }
+            Long incoming = event.task().getChangeVersion();
+            Long indexed = current != null ? current.task().getChangeVersion() : null;
+            if (incoming != null && indexed != null && indexed > incoming) {
+                return;
+            }
+            remove(event.taskId());
+            add(event.task());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(TaskDTO task) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String word : tokenize(task.getTitle())) {
+            weights.merge(word, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String word : tokenize(task.getDescription())) {
+            weights.merge(word, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        Doc doc = new Doc(task, weights, userKey(task.getOwner()), userKey(task.getAssignee()));
+        docs.put(task.getId(), doc);
+        weights.forEach((word, weight) -> postings.computeIfAbsent(word, w -> new HashMap<>()).put(task.getId(), weight));
+        for (String user : new String[] { doc.owner(), doc.assignee() }) {
+            if (user != null) {
+                userDocs.computeIfAbsent(user, u -> new HashSet<>()).add(task.getId());
+            }
+        }
+    }
+
+    private void remove(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String word : doc.weights().keySet()) {
+            Map<Long, Integer> posting = postings.get(word);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+        for (String user : new String[] { doc.owner(), doc.assignee() }) {
+            Set<Long> ids = user != null ? userDocs.get(user) : null;
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                userDocs.remove(user);
+            }
+        }
+    }
+
+    private static String userKey(String username) {
+        return username != null ? User.normalizeUsername(username) : null;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
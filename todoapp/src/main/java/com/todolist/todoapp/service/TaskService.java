@@ -1,16 +1,39 @@
 package com.todolist.todoapp.service;
 
+import com.todolist.todoapp.dto.TaskBatchOperation;
+import com.todolist.todoapp.dto.TaskBatchResult;
+import com.todolist.todoapp.dto.TaskChanges;
 import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskFilter;
+import com.todolist.todoapp.dto.TaskPatch;
+import com.todolist.todoapp.dto.TaskPage;
+import com.todolist.todoapp.dto.TaskStats;
 import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.model.TaskTombstone;
 import com.todolist.todoapp.model.User;
 import com.todolist.todoapp.repository.TaskRepository;
+import com.todolist.todoapp.repository.TaskRepositoryCustom;
+import com.todolist.todoapp.repository.TaskTombstoneRepository;
 import com.todolist.todoapp.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
@@ -20,21 +43,136 @@ public class TaskService {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
     @Autowired
     private UserRepository userRepository;
 
-    public List<Task> getAllTasks(String username) {
-        User user = userRepository.findByUsernameIgnoreCase(username).orElseThrow();
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private TaskChangeTracker changeTracker;
+
+    @Autowired
+    private TaskEventBus eventBus;
+
+    @Autowired
+    private TaskChangeClock changeClock;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private TaskStatsAggregator statsAggregator;
+
+    @Autowired
+    private TaskWriteBehind writeBehind;
+
+    @Value("${tasks.page.max-limit:500}")
+    private int maxPageLimit;
+
+    @Value("${tasks.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    // Strong ETag for a listing, derived from the caller's change version without touching the database
+    public String listingETag(String username, String variant) {
+        PrincipalCache.Principal principal = customUserDetailsService.loadPrincipal(username);
+        return changeTracker.etag(principal.id(), "ADMIN".equalsIgnoreCase(principal.role()), variant);
+    }
+
+    public List<TaskDTO> getAllTasks(String username) {
+        User user = userRepository.lookupByUsername(username).orElseThrow();
         if ("ADMIN".equalsIgnoreCase(user.getRole())) {
-            return taskRepository.findAll();
+            return taskRepository.findAllAsDTO();
         } else {
             return taskRepository.findByOwnerOrAssignee(user, user);
         }
     }
 
+    // Keyset-paginated listing with optional filters. Without a limit the whole (filtered) result
+    // is returned in one page, which keeps existing clients working.
+    public TaskPage<TaskDTO> getTasks(String username, TaskFilter filter) {
+        User user = userRepository.lookupByUsername(username).orElseThrow();
+        Long visibleTo = "ADMIN".equalsIgnoreCase(user.getRole()) ? null : user.getId();
+        TaskCursor after = filter.getAfter() != null ? TaskCursor.decode(filter.getAfter()) : null;
+        // Always paged: without ?limit= a listing is one tasks.page.max-limit page, never the whole table
+        int pageSize = filter.getLimit() != null ? Math.max(1, Math.min(filter.getLimit(), maxPageLimit)) : maxPageLimit;
+
+        // Fetch one extra row to know whether another page follows
+        List<TaskDTO> tasks = taskRepository.findPage(visibleTo,
+                filter.getCompleted(), filter.getPriority(), filter.getDueFrom(), filter.getDueTo(),
+                after != null ? after.dueDate() : null, after != null ? after.id() : null,
+                Limit.of(pageSize + 1));
+        if (tasks.size() <= pageSize) {
+            return new TaskPage<>(tasks, null);
+        }
+        List<TaskDTO> page = tasks.subList(0, pageSize);
+        return new TaskPage<>(page, TaskCursor.of(page.get(pageSize - 1)).encode());
+    }
+
+    // Counts over the user's tasks, or over every task for admins, without querying the database
+    public TaskStats getStats(String username) {
+        PrincipalCache.Principal principal = customUserDetailsService.loadPrincipal(username);
+        return "ADMIN".equalsIgnoreCase(principal.role())
+                ? statsAggregator.globalStats()
+                : statsAggregator.userStats(principal.username());
+    }
+
+    // Keyword search over title and description, answered from the in-memory index
+    public List<TaskDTO> searchTasks(String username, String query, Integer limit) {
+        PrincipalCache.Principal principal = customUserDetailsService.loadPrincipal(username);
+        boolean admin = "ADMIN".equalsIgnoreCase(principal.role());
+        int size = limit != null ? Math.max(1, Math.min(limit, maxPageLimit)) : 20;
+        return searchIndex.search(query, admin ? null : principal.username(), size);
+    }
+
+    // Streams every task visible to the user into the sink, one row at a time
+    @Transactional(readOnly = true)
+    public void exportTasks(String username, Consumer<TaskDTO> sink) {
+        User user = userRepository.lookupByUsername(username).orElseThrow();
+        boolean admin = "ADMIN".equalsIgnoreCase(user.getRole());
+        try (Stream<TaskDTO> tasks = admin ? taskRepository.streamAll() : taskRepository.streamVisibleTo(user.getId())) {
+            tasks.forEach(sink);
+        }
+    }
+
+    // Changes visible to the user after the given version, capped at the page limit. Rows are read only up
+    // to the clock's high-water mark, so nothing committed later can slip in below the returned version.
+    @Transactional(readOnly = true)
+    public TaskChanges getChangesSince(String username, long since, Integer limit) {
+        PrincipalCache.Principal principal = customUserDetailsService.loadPrincipal(username);
+        boolean admin = "ADMIN".equalsIgnoreCase(principal.role());
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, maxPageLimit)) : maxPageLimit;
+        long upTo = changeClock.highWaterMark();
+        if (since >= upTo) {
+            return new TaskChanges(List.of(), List.of(), Math.max(since, upTo), false);
+        }
+
+        List<TaskDTO> changed = admin
+                ? taskRepository.findChangedBetween(since, upTo, Limit.of(pageSize + 1))
+                : taskRepository.findChangedBetweenVisibleTo(principal.id(), since, upTo, Limit.of(pageSize + 1));
+        boolean hasMore = changed.size() > pageSize;
+        if (hasMore) {
+            changed = changed.subList(0, pageSize);
+            upTo = changed.get(pageSize - 1).getChangeVersion();
+        }
+        List<Long> removed = admin
+                ? tombstoneRepository.findDeletedBetween(since, upTo)
+                : tombstoneRepository.findRemovedBetween(principal.id(), since, upTo);
+        // A task that left the user's view and came back is reported by its current row only
+        Set<Long> changedIds = new HashSet<>();
+        changed.forEach(dto -> changedIds.add(dto.getId()));
+        List<Long> deleted = removed.stream().filter(id -> !changedIds.contains(id)).distinct().toList();
+        return new TaskChanges(changed, deleted, upTo, hasMore);
+    }
+
+    @Transactional
     public Task createTask(TaskDTO taskDTO, String username) {
-        User owner = userRepository.findByUsernameIgnoreCase(taskDTO.getOwner()).orElseThrow(() -> new RuntimeException("Owner not found"));
-        User assignee = userRepository.findByUsernameIgnoreCase(taskDTO.getAssignee()).orElseThrow(() -> new RuntimeException("Assignee not found"));
+        Map<String, User> users = usersByKey(taskDTO.getOwner(), taskDTO.getAssignee());
+        User owner = Optional.ofNullable(resolve(users, taskDTO.getOwner())).orElseThrow(() -> new RuntimeException("Owner not found"));
+        User assignee = Optional.ofNullable(resolve(users, taskDTO.getAssignee())).orElseThrow(() -> new RuntimeException("Assignee not found"));
 
         Task task = new Task();
         task.setTitle(taskDTO.getTitle());
@@ -44,67 +182,359 @@ public class TaskService {
         task.setOwner(owner);
         task.setAssignee(assignee);
         task.setCompleted(false);
+        touch(task);
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        eventBus.publish(List.of(event(TaskEvent.Type.CREATED, saved, Set.of())));
+        return saved;
     }
 
+    // Full update (PUT): every editable field is written; owner/assignee only when given
+    @Transactional
     public Task updateTask(Long id, TaskDTO updatedTask, String username) {
-        User user = userRepository.findByUsernameIgnoreCase(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-
-        // Allow if admin, owner, or assignee
-        if (!"ADMIN".equalsIgnoreCase(user.getRole()) &&
-            (task.getOwner() == null || !task.getOwner().getId().equals(user.getId())) &&
-            (task.getAssignee() == null || !task.getAssignee().getId().equals(user.getId()))) {
-            throw new RuntimeException("Forbidden");
-        }
-
-        task.setTitle(updatedTask.getTitle());
-        task.setDescription(updatedTask.getDescription());
-        task.setDueDate(updatedTask.getDueDate());
-        task.setCompleted(updatedTask.isCompleted());
-        task.setPriority(updatedTask.getPriority());
-
-        // Update assignee if provided (as username string)
-        if (updatedTask.getAssignee() != null) {
-            User assignee = userRepository.findByUsernameIgnoreCase(updatedTask.getAssignee())
+        return patchTask(id, TaskPatch.of(updatedTask), username);
+    }
+
+    // One authorized UPDATE in the common case: the caller's id and role come from the principal cache,
+    // named users from the user cache, and the permission and version checks are part of the statement's
+    // WHERE clause. Only the fields in the patch are written. The previous row comes back from the same
+    // statement, so the result and the event are built without reading the task; only a rejected update
+    // costs a second query, to tell a missing task from a forbidden edit or a version conflict.
+    @Transactional
+    public Task patchTask(Long id, TaskPatch patch, String username) {
+        PrincipalCache.Principal caller = customUserDetailsService.loadPrincipal(username);
+        if ((patch.has(TaskPatch.Field.COMPLETED) && patch.getCompleted() == null)
+                || (patch.has(TaskPatch.Field.PRIORITY) && patch.getPriority() == null)
+                || (patch.has(TaskPatch.Field.OWNER) && patch.getOwner() == null)
+                || (patch.has(TaskPatch.Field.ASSIGNEE) && patch.getAssignee() == null)) {
+            throw new IllegalArgumentException("completed, priority, owner and assignee cannot be null");
+        }
+        Map<String, User> users = usersByKey(patch.getAssignee(), patch.getOwner());
+        User assignee = null;
+        if (patch.has(TaskPatch.Field.ASSIGNEE)) {
+            assignee = Optional.ofNullable(resolve(users, patch.getAssignee()))
                     .orElseThrow(() -> new RuntimeException("Assignee not found"));
-            task.setAssignee(assignee);
         }
-
-        // Update owner if provided (as username string)
-        if (updatedTask.getOwner() != null) {
-            User owner = userRepository.findByUsernameIgnoreCase(updatedTask.getOwner())
+        User owner = null;
+        if (patch.has(TaskPatch.Field.OWNER)) {
+            owner = Optional.ofNullable(resolve(users, patch.getOwner()))
                     .orElseThrow(() -> new RuntimeException("Owner not found"));
-            task.setOwner(owner);
         }
+        if (writeBehind.isActive()) {
+            return writeBehind.update(id, patch, owner, assignee, caller);
+        }
+
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (patch.has(TaskPatch.Field.TITLE)) columns.put("title", patch.getTitle());
+        if (patch.has(TaskPatch.Field.DESCRIPTION)) columns.put("description", patch.getDescription());
+        if (patch.has(TaskPatch.Field.DUE_DATE)) columns.put("due_date", patch.getDueDate());
+        if (patch.has(TaskPatch.Field.COMPLETED)) columns.put("completed", patch.getCompleted());
+        if (patch.has(TaskPatch.Field.PRIORITY)) columns.put("priority", patch.getPriority());
+        if (owner != null) columns.put("owner_id", owner.getId());
+        if (assignee != null) columns.put("assignee_id", assignee.getId());
+        Task task = new Task();
+        task.setId(id);
+        touch(task);
 
-        return taskRepository.save(task);
+        TaskRepositoryCustom.PreviousRow previous = taskRepository.updateIfPermitted(id, caller.id(), isAdmin(caller),
+                        columns, task.getChangeVersion(), task.getUpdatedAt(), patch.getVersion())
+                .orElseThrow(() -> rejected(id, caller, patch.getVersion()));
+        task.setTitle(patch.has(TaskPatch.Field.TITLE) ? patch.getTitle() : previous.title());
+        task.setDescription(patch.has(TaskPatch.Field.DESCRIPTION) ? patch.getDescription() : previous.description());
+        task.setDueDate(patch.has(TaskPatch.Field.DUE_DATE) ? patch.getDueDate() : previous.dueDate());
+        task.setCompleted(patch.has(TaskPatch.Field.COMPLETED) ? patch.getCompleted() : previous.completed());
+        task.setPriority(patch.has(TaskPatch.Field.PRIORITY) ? patch.getPriority() : previous.priority());
+        // Unchanged owner/assignee are resolved from the user cache for the event and the response
+        task.setOwner(owner != null ? owner : userById(previous.ownerId()));
+        task.setAssignee(assignee != null ? assignee : userById(previous.assigneeId()));
+        task.setVersion((previous.version() != null ? previous.version() : 0) + 1);
+        Set<Long> before = involvedUserIds(previous);
+        tombstoneRepository.saveAll(revocations(task, before));
+
+        eventBus.publish(List.of(event(TaskEvent.Type.UPDATED, task, before)));
+        return task;
     }
 
+    // Writes coalesced changes from TaskWriteBehind: every task's full row in one JDBC batch, each guarded by
+    // the version it was based on. Returns the ids that were not written because the row is gone or has
+    // been changed by another path since.
+    @Transactional
+    public Set<Long> applyWriteBehind(List<TaskWriteBehind.PendingChange> changes) {
+        List<Task> tasks = new ArrayList<>();
+        for (TaskWriteBehind.PendingChange change : changes) {
+            touch(change.task());
+            tasks.add(change.task());
+        }
+        Set<Long> rejected = taskRepository.updateAllAtPreviousVersion(tasks);
+        List<TaskTombstone> tombstones = new ArrayList<>();
+        List<TaskEvent> events = new ArrayList<>();
+        for (TaskWriteBehind.PendingChange change : changes) {
+            if (!rejected.contains(change.task().getId())) {
+                tombstones.addAll(revocations(change.task(), change.previousUserIds()));
+                events.add(event(TaskEvent.Type.UPDATED, change.task(), change.previousUserIds()));
+            }
+        }
+        tombstoneRepository.saveAll(tombstones);
+        eventBus.publish(events);
+        return rejected;
+    }
+
+    // One authorized DELETE (owner or admin) plus the tombstone batch
+    @Transactional
     public void deleteTask(Long id, String username) {
-        User user = userRepository.findByUsernameIgnoreCase(username).orElseThrow();
-        Task task = taskRepository.findById(id).orElseThrow();
-        // Allow if admin or owner
-        if (!"ADMIN".equalsIgnoreCase(user.getRole()) && !task.getOwner().getId().equals(user.getId())) {
-            throw new RuntimeException("Forbidden");
+        PrincipalCache.Principal caller = customUserDetailsService.loadPrincipal(username);
+        TaskRepositoryCustom.PreviousRow previous = taskRepository.deleteIfPermitted(id, caller.id(), isAdmin(caller))
+                .orElseThrow(() -> new RuntimeException(taskRepository.existsById(id) ? "Forbidden" : "Task not found"));
+        Set<Long> userIds = involvedUserIds(previous);
+        tombstoneRepository.saveAll(deletionTombstones(id, userIds));
+        eventBus.publish(List.of(new TaskEvent(TaskEvent.Type.DELETED, id, null, userIds)));
+    }
+
+    private static boolean isAdmin(PrincipalCache.Principal principal) {
+        return "ADMIN".equalsIgnoreCase(principal.role());
+    }
+
+    // An authorized update affected nothing: the task is gone, the caller may not edit it, or it has moved
+    // past the version the edit was based on
+    private RuntimeException rejected(Long id, PrincipalCache.Principal caller, Long expectedVersion) {
+        Task current = taskRepository.findById(id).orElse(null);
+        if (current == null) {
+            return new RuntimeException("Task not found");
+        }
+        boolean permitted = isAdmin(caller)
+                || (current.getOwner() != null && current.getOwner().getId().equals(caller.id()))
+                || (current.getAssignee() != null && current.getAssignee().getId().equals(caller.id()));
+        if (!permitted) {
+            return new RuntimeException("Forbidden");
+        }
+        return new TaskConflictException(id, expectedVersion, current.getVersion());
+    }
+
+    private User userById(Long id) {
+        return id != null ? userRepository.findById(id).orElse(null) : null;
+    }
+
+    // Event for a saved task; previousUserIds are the owner/assignee it had before the change
+    private static TaskEvent event(TaskEvent.Type type, Task task, Set<Long> previousUserIds) {
+        Set<Long> userIds = involvedUserIds(task);
+        userIds.addAll(previousUserIds);
+        return new TaskEvent(type, task.getId(), new TaskDTO(task), userIds);
+    }
+
+    // Stamps the task for delta sync; called for every insert and update
+    private void touch(Task task) {
+        task.setChangeVersion(changeClock.next());
+        task.setUpdatedAt(LocalDateTime.now());
+    }
+
+    // One admin-feed row plus one row per user who could see the task
+    private List<TaskTombstone> deletionTombstones(Long taskId, Set<Long> userIds) {
+        long version = changeClock.next();
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskTombstone> tombstones = new ArrayList<>();
+        tombstones.add(new TaskTombstone(taskId, null, version, now));
+        for (Long userId : userIds) {
+            tombstones.add(new TaskTombstone(taskId, userId, version, now));
+        }
+        return tombstones;
+    }
+
+    // Users who could see a touched task before it was reassigned but not after; they share its new version
+    private static List<TaskTombstone> revocations(Task task, Set<Long> previousUserIds) {
+        List<TaskTombstone> tombstones = new ArrayList<>();
+        Set<Long> current = involvedUserIds(task);
+        for (Long userId : previousUserIds) {
+            if (!current.contains(userId)) {
+                tombstones.add(new TaskTombstone(task.getId(), userId, task.getChangeVersion(), task.getUpdatedAt()));
+            }
+        }
+        return tombstones;
+    }
+
+    private static Set<Long> involvedUserIds(Task task) {
+        Set<Long> ids = new HashSet<>();
+        if (task.getOwner() != null) ids.add(task.getOwner().getId());
+        if (task.getAssignee() != null) ids.add(task.getAssignee().getId());
+        return ids;
+    }
+
+    private static Set<Long> involvedUserIds(TaskRepositoryCustom.PreviousRow previous) {
+        Set<Long> ids = new HashSet<>();
+        if (previous.ownerId() != null) ids.add(previous.ownerId());
+        if (previous.assigneeId() != null) ids.add(previous.assigneeId());
+        return ids;
+    }
+
+    // Applies a list of create/update/delete operations in one transaction. Referenced users and tasks are
+    // loaded with one query each, and the writes go out as JDBC batches on flush. Entries that fail
+    // validation are reported and skipped; the rest are committed.
+    @Transactional
+    public List<TaskBatchResult> applyBatch(List<TaskBatchOperation> operations, String username) {
+        if (operations.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch exceeds " + maxBatchSize + " operations");
+        }
+        Set<String> names = new HashSet<>();
+        names.add(key(username));
+        Set<Long> taskIds = new HashSet<>();
+        for (TaskBatchOperation operation : operations) {
+            TaskDTO dto = operation.getTask();
+            if (dto != null && dto.getOwner() != null) names.add(key(dto.getOwner()));
+            if (dto != null && dto.getAssignee() != null) names.add(key(dto.getAssignee()));
+            if (operation.getId() != null) taskIds.add(operation.getId());
+        }
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findByUsernameNormalizedIn(names)) {
+            users.put(key(user.getUsername()), user);
+        }
+        Map<Long, Task> tasks = new HashMap<>();
+        for (Task task : taskRepository.findAllById(taskIds)) {
+            tasks.put(task.getId(), task);
+        }
+        User caller = users.get(key(username));
+        if (caller == null) {
+            throw new RuntimeException("User not found");
+        }
+        boolean admin = "ADMIN".equalsIgnoreCase(caller.getRole());
+
+        List<TaskBatchResult> results = new ArrayList<>();
+        List<Task> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        List<Task> deleted = new ArrayList<>();
+        List<TaskTombstone> tombstones = new ArrayList<>();
+        List<TaskEvent> events = new ArrayList<>();
+        Map<Integer, Map.Entry<Task, Set<Long>>> updated = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBatchOperation operation = operations.get(i);
+            TaskBatchOperation.Op op = operation.getOp();
+            TaskDTO dto = operation.getTask();
+            if (op == null || (op != TaskBatchOperation.Op.DELETE && dto == null)
+                    || (op != TaskBatchOperation.Op.CREATE && operation.getId() == null)) {
+                results.add(new TaskBatchResult(i, op, operation.getId(), 400, "Invalid operation"));
+                continue;
+            }
+            if (op == TaskBatchOperation.Op.CREATE) {
+                User owner = dto.getOwner() != null ? users.get(key(dto.getOwner())) : null;
+                User assignee = dto.getAssignee() != null ? users.get(key(dto.getAssignee())) : null;
+                if (owner == null || assignee == null) {
+                    results.add(new TaskBatchResult(i, op, null, 400, owner == null ? "Owner not found" : "Assignee not found"));
+                    continue;
+                }
+                Task task = new Task();
+                task.setTitle(dto.getTitle());
+                task.setDescription(dto.getDescription());
+                task.setDueDate(dto.getDueDate());
+                task.setPriority(dto.getPriority());
+                task.setOwner(owner);
+                task.setAssignee(assignee);
+                task.setCompleted(false);
+                touch(task);
+                created.add(task);
+                createdIndexes.add(i);
+                results.add(null); // filled in once ids are assigned
+                continue;
+            }
+            Task task = tasks.get(operation.getId());
+            if (task == null) {
+                results.add(new TaskBatchResult(i, op, operation.getId(), 404, "Task not found"));
+                continue;
+            }
+            boolean isOwner = task.getOwner() != null && task.getOwner().getId().equals(caller.getId());
+            boolean isAssignee = task.getAssignee() != null && task.getAssignee().getId().equals(caller.getId());
+            if (op == TaskBatchOperation.Op.DELETE) {
+                if (!admin && !isOwner) {
+                    results.add(new TaskBatchResult(i, op, task.getId(), 403, "Forbidden"));
+                    continue;
+                }
+                deleted.add(task);
+                tombstones.addAll(deletionTombstones(task.getId(), involvedUserIds(task)));
+                events.add(new TaskEvent(TaskEvent.Type.DELETED, task.getId(), null, involvedUserIds(task)));
+                tasks.remove(task.getId());
+                results.add(new TaskBatchResult(i, op, task.getId(), 200, null));
+                continue;
+            }
+            if (!admin && !isOwner && !isAssignee) {
+                results.add(new TaskBatchResult(i, op, task.getId(), 403, "Forbidden"));
+                continue;
+            }
+            if (dto.getVersion() != null && !dto.getVersion().equals(task.getVersion())) {
+                results.add(new TaskBatchResult(i, op, task.getId(), 409, "Version conflict"));
+                continue;
+            }
+            User assignee = task.getAssignee();
+            if (dto.getAssignee() != null && (assignee = users.get(key(dto.getAssignee()))) == null) {
+                results.add(new TaskBatchResult(i, op, task.getId(), 400, "Assignee not found"));
+                continue;
+            }
+            User owner = task.getOwner();
+            if (dto.getOwner() != null && (owner = users.get(key(dto.getOwner()))) == null) {
+                results.add(new TaskBatchResult(i, op, task.getId(), 400, "Owner not found"));
+                continue;
+            }
+            Set<Long> before = involvedUserIds(task);
+            // Managed entity: the UPDATE is issued by dirty checking at flush
+            task.setTitle(dto.getTitle());
+            task.setDescription(dto.getDescription());
+            task.setDueDate(dto.getDueDate());
+            task.setCompleted(dto.isCompleted());
+            task.setPriority(dto.getPriority());
+            task.setAssignee(assignee);
+            task.setOwner(owner);
+            touch(task);
+            tombstones.addAll(revocations(task, before));
+            updated.put(events.size(), Map.entry(task, before));
+            events.add(null); // filled in after the flush, which increments @Version
+            results.add(new TaskBatchResult(i, op, task.getId(), 200, null));
         }
-        taskRepository.delete(task);
+
+        taskRepository.saveAll(created);
+        taskRepository.deleteAll(deleted);
+        tombstoneRepository.saveAll(tombstones);
+        taskRepository.flush();
+        updated.forEach((index, change) -> events.set(index, event(TaskEvent.Type.UPDATED, change.getKey(), change.getValue())));
+        created.forEach(task -> events.add(event(TaskEvent.Type.CREATED, task, Set.of())));
+        eventBus.publish(events);
+        for (int j = 0; j < created.size(); j++) {
+            int index = createdIndexes.get(j);
+            results.set(index, new TaskBatchResult(index, TaskBatchOperation.Op.CREATE, created.get(j).getId(), 201, null));
+        }
+        return results;
+    }
+
+    private static String key(String username) {
+        return User.normalizeUsername(username);
+    }
+
+    // Loads every named user with one query, keyed by normalized username; null names are skipped
+    private Map<String, User> usersByKey(String... usernames) {
+        Set<String> keys = new HashSet<>();
+        for (String username : usernames) {
+            if (username != null) keys.add(key(username));
+        }
+        Map<String, User> users = new HashMap<>();
+        if (keys.isEmpty()) {
+            return users;
+        }
+        for (User user : userRepository.findByUsernameNormalizedIn(keys)) {
+            users.put(key(user.getUsername()), user);
+        }
+        return users;
+    }
+
+    private static User resolve(Map<String, User> users, String username) {
+        return username != null ? users.get(key(username)) : null;
     }
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
-    public List<Task> getTasksAssignedToMe(String username) {
-        User user = userRepository.findByUsernameIgnoreCase(username).orElseThrow();
+    public List<TaskDTO> getTasksAssignedToMe(String username) {
+        User user = userRepository.lookupByUsername(username).orElseThrow();
         return taskRepository.findByAssignee(user);
     }
 
-    public List<Task> getTasksAssignedByMe(String username) {
-        User user = userRepository.findByUsernameIgnoreCase(username).orElseThrow();
+    public List<TaskDTO> getTasksAssignedByMe(String username) {
+        User user = userRepository.lookupByUsername(username).orElseThrow();
         return taskRepository.findByOwnerAndAssigneeNot(user, user);
     }
 
@@ -0,0 +1,327 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskStats;
+import com.todolist.todoapp.model.User;
+import com.todolist.todoapp.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Task counts per user and overall, kept current from the event bus. Each task's last counted state
+// is remembered so an update can move it between buckets; updates to different tasks run in parallel
+// (per-key compute on the snapshot map, LongAdder counters) and only short swaps exclude them. Deleted
+// task ids are remembered for a reconcile interval so a late update cannot bring one back. Overdue is a
+// counter too: open tasks wait per due date until a clock tick moves them over.
+@Component
+public class TaskStatsAggregator implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatsAggregator.class);
+
+    private static final TaskStats EMPTY = new TaskStats(0, 0, 0, 0, Map.of());
+
+    private record Snapshot(String owner, String assignee, boolean completed, int priority,
+                            LocalDateTime dueDate, Long changeVersion) {
+
+        static Snapshot of(TaskDTO task) {
+            return new Snapshot(userKey(task.getOwner()), userKey(task.getAssignee()), task.isCompleted(),
+                    task.getPriority(), task.getDueDate(), task.getChangeVersion());
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder total = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder overdue = new LongAdder();
+        final Map<Integer, LongAdder> byPriority = new ConcurrentHashMap<>();
+        // Open tasks not yet overdue, by due date
+        final ConcurrentSkipListMap<LocalDateTime, Long> openByDueDate = new ConcurrentSkipListMap<>();
+
+        void add(Snapshot task, long count, LocalDateTime overdueUntil) {
+            total.add(count);
+            if (task.completed()) {
+                completed.add(count);
+            } else if (task.dueDate() != null) {
+                if (task.dueDate().isBefore(overdueUntil)) {
+                    overdue.add(count);
+                } else {
+                    openByDueDate.merge(task.dueDate(), count, (a, b) -> a + b == 0 ? null : a + b);
+                }
+            }
+            byPriority.computeIfAbsent(task.priority(), p -> new LongAdder()).add(count);
+        }
+
+        // Caller holds the write lock
+        void advance(LocalDateTime now) {
+            Map<LocalDateTime, Long> due = openByDueDate.headMap(now);
+            due.values().forEach(overdue::add);
+            due.clear();
+        }
+
+        // Individual sums are exact but not taken at one instant, which is fine for a dashboard
+        TaskStats read() {
+            long all = total.sum();
+            long done = completed.sum();
+            Map<Integer, Long> priorities = new TreeMap<>();
+            byPriority.forEach((priority, count) -> {
+                long sum = count.sum();
+                if (sum != 0) {
+                    priorities.put(priority, sum);
+                }
+            });
+            return new TaskStats(all, all - done, done, overdue.sum(), priorities);
+        }
+    }
+
+    // Events applied while reconcile() reads the database, replayed onto a rebuild and used to skip
+    // users whose counts were moving while they were compared
+    private static final class Journal {
+        final Queue<TaskEvent> events = new ConcurrentLinkedQueue<>();
+        final Set<String> touched = ConcurrentHashMap.newKeySet();
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private Counters global = new Counters();
+    // Normalized username -> counts over the tasks that user owns or is assigned
+    private Map<String, Counters> users = new ConcurrentHashMap<>();
+    // Deleted task id -> reconcile generation it was deleted in
+    private final Map<Long, Long> removed = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile LocalDateTime overdueUntil = LocalDateTime.now();
+    private volatile Journal journal;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public TaskStatsAggregator(TaskEventBus eventBus) {
+        eventBus.subscribe(this::apply);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Journal running = new Journal();
+        journal = running;
+        try {
+            rebuild(running);
+        } finally {
+            journal = null;
+        }
+    }
+
+    public TaskStats globalStats() {
+        lock.readLock().lock();
+        try {
+            return global.read();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TaskStats userStats(String username) {
+        lock.readLock().lock();
+        try {
+            return read(users.get(User.normalizeUsername(username)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Moves open tasks whose due date has passed into the overdue counters. Reads lag by at most one tick.
+    @Scheduled(fixedDelayString = "${tasks.stats.overdue-tick-ms:1000}")
+    public void advanceOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            if (now.isAfter(overdueUntil)) {
+                overdueUntil = now;
+                // Every open due date is also in the global map, so when nothing fell due there nobody has
+                if (!global.openByDueDate.isEmpty() && global.openByDueDate.firstKey().isBefore(now)) {
+                    global.advance(now);
+                    users.values().forEach(counters -> counters.advance(now));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Compares every user's counts with one grouped query, run without the lock, and rebuilds if any
+    // drifted. Users touched by an event during the query are skipped, since the query may or may not
+    // have seen that change; they are checked again next time.
+    @Scheduled(initialDelayString = "${tasks.stats.reconcile-ms:600000}", fixedDelayString = "${tasks.stats.reconcile-ms:600000}")
+    public void reconcile() {
+        Journal running = new Journal();
+        journal = running;
+        try {
+            Counters all = new Counters();
+            Map<String, Counters> counted = new HashMap<>();
+            for (Object[] row : taskRepository.countByUsersPriorityAndCompleted()) {
+                Snapshot bucket = new Snapshot((String) row[0], (String) row[1], (Boolean) row[3], (Integer) row[2], null, null);
+                count(all, counted, bucket, (Long) row[4], overdueUntil);
+            }
+
+            List<String> drifted = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                // Tombstones only need to outlive events that were in flight when the task was deleted
+                long current = generation.incrementAndGet();
+                removed.values().removeIf(deletedIn -> deletedIn < current - 1);
+                if (running.events.isEmpty() && !sameCounts(global.read(), all.read())) {
+                    drifted.add("*");
+                }
+                Set<String> names = new HashSet<>(counted.keySet());
+                names.addAll(users.keySet());
+                for (String user : names) {
+                    if (!running.touched.contains(user) && !sameCounts(read(users.get(user)), read(counted.get(user)))) {
+                        drifted.add(user);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!drifted.isEmpty()) {
+                logger.warn("Task stats drifted for {} (\"*\" is the overall count), rebuilding", drifted);
+                rebuild(running);
+            }
+        } finally {
+            journal = null;
+        }
+    }
+
+    // Counts every task into fresh maps without the lock, then swaps them in and replays the events
+    // journaled since before the read; those are skipped or applied by change version as usual.
+    // The caller has started the journal.
+    private void rebuild(Journal running) {
+        long start = System.nanoTime();
+        Map<Long, Snapshot> freshSnapshots = new ConcurrentHashMap<>();
+        Counters freshGlobal = new Counters();
+        Map<String, Counters> freshUsers = new ConcurrentHashMap<>();
+        LocalDateTime until = overdueUntil;
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<TaskDTO> tasks = taskRepository.streamAll()) {
+                tasks.forEach(task -> {
+                    Snapshot snapshot = Snapshot.of(task);
+                    freshSnapshots.put(task.getId(), snapshot);
+                    count(freshGlobal, freshUsers, snapshot, 1, until);
+                });
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            snapshots = freshSnapshots;
+            global = freshGlobal;
+            users = freshUsers;
+            // The clock may have ticked during the read
+            global.advance(overdueUntil);
+            users.values().forEach(counters -> counters.advance(overdueUntil));
+            running.events.forEach(this::applyCounted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Counted {} tasks for stats in {} ms", freshSnapshots.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void apply(TaskEvent event) {
+        lock.readLock().lock();
+        try {
+            Journal running = journal;
+            if (running != null) {
+                running.events.add(event);
+            }
+            Snapshot[] change = applyCounted(event);
+            if (running != null) {
+                for (Snapshot snapshot : change) {
+                    if (snapshot != null) {
+                        if (snapshot.owner() != null) running.touched.add(snapshot.owner());
+                        if (snapshot.assignee() != null) running.touched.add(snapshot.assignee());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds either lock. Returns the task's snapshots before and after, for the journal.
+    private Snapshot[] applyCounted(TaskEvent event) {
+        Snapshot[] change = new Snapshot[2];
+        snapshots.compute(event.taskId(), (id, previous) -> {
+            change[0] = previous;
+            if (event.type() == TaskEvent.Type.DELETED) {
+                removed.put(id, generation.get());
+                if (previous != null) {
+                    count(global, users, previous, -1, overdueUntil);
+                }
+                return null;
+            }
+            Snapshot next = Snapshot.of(event.task());
+            // Late or already counted (e.g. read by a rebuild) events are ignored, and so is anything
+            // arriving for a task after its deletion
+            if (removed.containsKey(id) || previous != null && previous.changeVersion() != null
+                    && next.changeVersion() != null && previous.changeVersion() >= next.changeVersion()) {
+                return previous;
+            }
+            if (previous != null) {
+                count(global, users, previous, -1, overdueUntil);
+            }
+            count(global, users, next, 1, overdueUntil);
+            change[1] = next;
+            return next;
+        });
+        return change;
+    }
+
+    private static void count(Counters global, Map<String, Counters> users, Snapshot task, long count, LocalDateTime overdueUntil) {
+        global.add(task, count, overdueUntil);
+        if (task.owner() != null) {
+            users.computeIfAbsent(task.owner(), u -> new Counters()).add(task, count, overdueUntil);
+        }
+        if (task.assignee() != null && !task.assignee().equals(task.owner())) {
+            users.computeIfAbsent(task.assignee(), u -> new Counters()).add(task, count, overdueUntil);
+        }
+    }
+
+    private static TaskStats read(Counters counters) {
+        return counters != null ? counters.read() : EMPTY;
+    }
+
+    // Overdue is left out: the database count has no clock to compare against
+    private static boolean sameCounts(TaskStats counted, TaskStats expected) {
+        return counted.total() == expected.total() && counted.completed() == expected.completed()
+                && counted.byPriority().equals(expected.byPriority());
+    }
+
+    private static String userKey(String username) {
+        return username != null ? User.normalizeUsername(username) : null;
+    }
+}
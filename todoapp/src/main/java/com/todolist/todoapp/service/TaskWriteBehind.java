@@ -0,0 +1,395 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskPatch;
+import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.model.User;
+import com.todolist.todoapp.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Opt-in write-behind for PUT/PATCH (tasks.write-behind.enabled). An update is checked against and applied
+// to an in-memory copy of the task and answered from it; further updates to the same task merge into the
+// same pending change. A task is written once it has been quiet for window-ms, or at the latest max-delay-ms
+// after its first pending update; all due tasks go out in one transaction as a single JDBC batch of UPDATEs.
+// Whatever is pending is flushed on shutdown, after the web server has stopped taking requests.
+//
+// While a change is pending, clients see version + 1 in responses but listings, search and the change feed
+// only show it once written. A task changed through another path in the meantime (batch endpoint, another
+// instance) fails the version check on flush and its pending change is lost even though the client was
+// answered 200. Such a drop is counted in tasks.write_behind.dropped and followed by a compensating event
+// with the row as it really is (or a deletion), so open task streams replace what they were told.
+@Component
+public class TaskWriteBehind implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskWriteBehind.class);
+
+    // What a flush writes for one task: its full state at the version it moves to, and who could see the
+    // row as last written, for revocation tombstones and the event
+    public record PendingChange(Task task, Set<Long> previousUserIds) {}
+
+    // Current state of a task with unwritten changes. Guarded by its own monitor; once retired it has left
+    // the map and callers holding it must look the task up again.
+    private static final class Entry {
+        final Long id;
+        String title;
+        String description;
+        LocalDateTime dueDate;
+        boolean completed;
+        int priority;
+        User owner;
+        User assignee;
+        Long changeVersion;
+        LocalDateTime updatedAt;
+        long version;
+        Set<Long> writtenUserIds;
+        boolean pending;
+        long firstPendingAt;
+        long lastUpdateAt;
+        boolean flushing;
+        boolean retired;
+
+        Entry(Task task) {
+            id = task.getId();
+            title = task.getTitle();
+            description = task.getDescription();
+            dueDate = task.getDueDate();
+            completed = task.isCompleted();
+            priority = task.getPriority();
+            owner = task.getOwner();
+            assignee = task.getAssignee();
+            changeVersion = task.getChangeVersion();
+            updatedAt = task.getUpdatedAt();
+            version = task.getVersion() != null ? task.getVersion() : 0;
+            writtenUserIds = userIds(owner, assignee);
+        }
+
+        Task toTask() {
+            Task task = new Task();
+            task.setId(id);
+            task.setTitle(title);
+            task.setDescription(description);
+            task.setDueDate(dueDate);
+            task.setCompleted(completed);
+            task.setPriority(priority);
+            task.setOwner(owner);
+            task.setAssignee(assignee);
+            task.setChangeVersion(changeVersion);
+            task.setUpdatedAt(updatedAt);
+            task.setVersion(version);
+            return task;
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Lazy: TaskService routes updates here and this writes them back through TaskService
+    @Autowired
+    @Lazy
+    private TaskService taskService;
+
+    @Value("${tasks.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tasks.write-behind.window-ms:250}")
+    private long windowMs;
+
+    @Value("${tasks.write-behind.max-delay-ms:2000}")
+    private long maxDelayMs;
+
+    @Value("${tasks.write-behind.max-batch:500}")
+    private int maxBatch;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final TaskEventBus eventBus;
+    private final TransactionTemplate readTransaction;
+    private final Counter updates;
+    private final Counter writes;
+    private final Counter dropped;
+    private final Object flushLock = new Object();
+    private volatile ScheduledExecutorService scheduler;
+
+    // Deletes arrive through the event bus, after commit
+    public TaskWriteBehind(TaskEventBus eventBus, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.eventBus = eventBus;
+        eventBus.subscribe(event -> {
+            if (event.type() == TaskEvent.Type.DELETED) {
+                forget(event.taskId());
+            }
+        });
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // updates / writes is the coalescing ratio
+        this.updates = Counter.builder("tasks.write_behind.updates").register(meterRegistry);
+        this.writes = Counter.builder("tasks.write_behind.writes").register(meterRegistry);
+        this.dropped = Counter.builder("tasks.write_behind.dropped").register(meterRegistry);
+        Gauge.builder("tasks.write_behind.pending", entries, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    public boolean isActive() {
+        return enabled && scheduler != null;
+    }
+
+    // Applies a validated patch to the in-memory task; owner and assignee are already resolved when present
+    public Task update(Long id, TaskPatch patch, User owner, User assignee, PrincipalCache.Principal caller) {
+        while (true) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                entry = load(id);
+                Entry existing = entries.putIfAbsent(id, entry);
+                if (existing != null) {
+                    entry = existing;
+                }
+            }
+            synchronized (entry) {
+                if (entry.retired) {
+                    continue;
+                }
+                if (!permitted(entry, caller)) {
+                    discardIfClean(entry);
+                    throw new RuntimeException("Forbidden");
+                }
+                if (patch.getVersion() != null && patch.getVersion() != entry.version) {
+                    discardIfClean(entry);
+                    throw new TaskConflictException(id, patch.getVersion(), entry.version);
+                }
+                long now = System.nanoTime();
+                if (!entry.pending) {
+                    // First change since the last flush: it will land on top of the current version
+                    entry.pending = true;
+                    entry.version++;
+                    entry.firstPendingAt = now;
+                }
+                entry.lastUpdateAt = now;
+                if (patch.has(TaskPatch.Field.TITLE)) entry.title = patch.getTitle();
+                if (patch.has(TaskPatch.Field.DESCRIPTION)) entry.description = patch.getDescription();
+                if (patch.has(TaskPatch.Field.DUE_DATE)) entry.dueDate = patch.getDueDate();
+                if (patch.has(TaskPatch.Field.COMPLETED)) entry.completed = patch.getCompleted();
+                if (patch.has(TaskPatch.Field.PRIORITY)) entry.priority = patch.getPriority();
+                if (owner != null) entry.owner = owner;
+                if (assignee != null) entry.assignee = assignee;
+                updates.increment();
+                return entry.toTask();
+            }
+        }
+    }
+
+    // A copy with nothing pending or being written must not outlive the update that loaded it
+    private void discardIfClean(Entry entry) {
+        if (!entry.pending && !entry.flushing) {
+            entry.retired = true;
+            entries.remove(entry.id, entry);
+        }
+    }
+
+    // A deleted task's pending change has nothing left to write
+    public void forget(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.retired = true;
+            }
+        }
+    }
+
+    // Writes every pending change now, regardless of the window
+    public void flush() {
+        flush(true);
+    }
+
+    private void flushDue() {
+        try {
+            flush(false);
+        } catch (RuntimeException e) {
+            logger.error("Write-behind flush failed", e);
+        }
+    }
+
+    private void flush(boolean all) {
+        synchronized (flushLock) {
+            long now = System.nanoTime();
+            long window = TimeUnit.MILLISECONDS.toNanos(windowMs);
+            long maxDelay = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+            List<PendingChange> batch = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                synchronized (entry) {
+                    if (entry.retired || !entry.pending
+                            || (!all && now - entry.lastUpdateAt < window && now - entry.firstPendingAt < maxDelay)) {
+                        continue;
+                    }
+                    batch.add(new PendingChange(entry.toTask(), entry.writtenUserIds));
+                    entry.pending = false;
+                    entry.flushing = true;
+                }
+                if (batch.size() == maxBatch) {
+                    write(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    // One transaction per batch; if it fails as a whole, each change is retried on its own so a single
+    // bad row only costs its own change
+    private void write(List<PendingChange> batch) {
+        Set<Long> rejected;
+        try {
+            rejected = taskService.applyWriteBehind(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Write-behind batch of {} failed, retrying one by one", batch.size(), e);
+            rejected = new HashSet<>();
+            for (PendingChange change : batch) {
+                try {
+                    rejected.addAll(taskService.applyWriteBehind(List.of(change)));
+                } catch (RuntimeException single) {
+                    logger.warn("Write-behind change to task {} failed", change.task().getId(), single);
+                    rejected.add(change.task().getId());
+                }
+            }
+        }
+        List<PendingChange> lost = new ArrayList<>();
+        for (PendingChange change : batch) {
+            Long id = change.task().getId();
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                continue;
+            }
+            synchronized (entry) {
+                entry.flushing = false;
+                if (rejected.contains(id)) {
+                    lost.add(change);
+                    // Newer changes were built on the dropped one and go with it
+                    logger.warn("Dropped write-behind change to task {}: row is gone or no longer at version {}",
+                            id, change.task().getVersion() - 1);
+                    dropped.increment();
+                    entry.retired = true;
+                    entries.remove(id, entry);
+                } else {
+                    writes.increment();
+                    entry.writtenUserIds = userIds(change.task().getOwner(), change.task().getAssignee());
+                    entry.changeVersion = change.task().getChangeVersion();
+                    entry.updatedAt = change.task().getUpdatedAt();
+                    discardIfClean(entry);
+                }
+            }
+        }
+        if (!lost.isEmpty()) {
+            compensate(lost);
+        }
+    }
+
+    // Those changes were acknowledged but never written: tell everyone who could see the task, before or
+    // after, what the row actually holds now
+    private void compensate(List<PendingChange> lost) {
+        try {
+            eventBus.publish(readTransaction.execute(status -> {
+                List<TaskEvent> events = new ArrayList<>();
+                for (PendingChange change : lost) {
+                    Long id = change.task().getId();
+                    Set<Long> userIds = new HashSet<>(change.previousUserIds());
+                    userIds.addAll(userIds(change.task().getOwner(), change.task().getAssignee()));
+                    Task current = taskRepository.findById(id).orElse(null);
+                    if (current != null) {
+                        userIds.addAll(userIds(current.getOwner(), current.getAssignee()));
+                        events.add(new TaskEvent(TaskEvent.Type.UPDATED, id, new TaskDTO(current), userIds));
+                    } else {
+                        events.add(new TaskEvent(TaskEvent.Type.DELETED, id, null, userIds));
+                    }
+                }
+                return events;
+            }));
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish corrections for {} dropped write-behind changes", lost.size(), e);
+        }
+    }
+
+    private Entry load(Long id) {
+        return readTransaction.execute(status -> {
+            Task task = taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found"));
+            // Initialize owner/assignee (second-level cache hits) so the copy works outside the session
+            if (task.getOwner() != null) task.getOwner().getUsername();
+            if (task.getAssignee() != null) task.getAssignee().getUsername();
+            return new Entry(task);
+        });
+    }
+
+    private static Set<Long> userIds(User owner, User assignee) {
+        Set<Long> ids = new HashSet<>();
+        if (owner != null) ids.add(owner.getId());
+        if (assignee != null) ids.add(assignee.getId());
+        return ids;
+    }
+
+    private static boolean permitted(Entry entry, PrincipalCache.Principal caller) {
+        return "ADMIN".equalsIgnoreCase(caller.role())
+                || (entry.owner != null && entry.owner.getId().equals(caller.id()))
+                || (entry.assignee != null && entry.assignee.getId().equals(caller.id()));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long tick = Math.max(1, Math.min(windowMs, maxDelayMs) / 4);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushDue, tick, tick, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    // New updates go to the database directly from here on; the rest of the queue is written out
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null) {
+            return;
+        }
+        scheduler = null;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    // Below the web server's phases, so it is stopped (and drained) before the last flush
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,127 @@
+package com.todolist.todoapp.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Hashed timing wheel: a ring of buckets, one per tick, and every timer sits in the bucket its deadline
+// hashes to. Scheduling, rescheduling and cancelling are O(1) (a map lookup and a list splice, reusing the
+// node on reschedule); advancing walks only the buckets of the elapsed ticks, and timers one or more
+// revolutions out are skipped until their round comes. Timers are keyed by a long id, at most one per key.
+// Time is counted in ticks supplied by the caller. Not thread-safe.
+public class TimingWheel<V> {
+
+    @FunctionalInterface
+    public interface ExpiryHandler<V> {
+        void expired(long key, V value);
+    }
+
+    private static final class Timer<V> {
+        final long key;
+        long deadline;
+        V value;
+        Timer<V> prev;
+        Timer<V> next;
+        int bucket;
+
+        Timer(long key) {
+            this.key = key;
+        }
+    }
+
+    private final Timer<V>[] buckets;
+    private final int mask;
+    private final Map<Long, Timer<V>> timers = new HashMap<>();
+    private long now;
+
+    // wheelSize is rounded up to a power of two
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int wheelSize, long startTick) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.buckets = (Timer<V>[]) new Timer[size];
+        this.mask = size - 1;
+        this.now = startTick;
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    public V get(long key) {
+        Timer<V> timer = timers.get(key);
+        return timer != null ? timer.value : null;
+    }
+
+    // Replaces any timer the key already has. A deadline that is not in the future fires on the next advance.
+    public void schedule(long key, long deadline, V value) {
+        Timer<V> timer = timers.get(key);
+        if (timer == null) {
+            timer = new Timer<>(key);
+            timers.put(key, timer);
+        } else {
+            unlink(timer);
+        }
+        timer.deadline = Math.max(deadline, now + 1);
+        timer.value = value;
+        link(timer);
+    }
+
+    public V cancel(long key) {
+        Timer<V> timer = timers.remove(key);
+        if (timer == null) {
+            return null;
+        }
+        unlink(timer);
+        return timer.value;
+    }
+
+    // Moves time forward to toTick and hands every timer due by then to the handler. After a pause longer
+    // than one revolution each bucket is still walked only once. The handler may schedule new timers but
+    // not cancel other ones; a new timer already due fires in this advance or the next one.
+    public void advance(long toTick, ExpiryHandler<V> handler) {
+        if (toTick <= now) {
+            return;
+        }
+        long ticks = Math.min(toTick - now, buckets.length);
+        for (long tick = now + 1; tick <= now + ticks; tick++) {
+            Timer<V> timer = buckets[(int) (tick & mask)];
+            while (timer != null) {
+                Timer<V> next = timer.next;
+                if (timer.deadline <= toTick) {
+                    unlink(timer);
+                    timers.remove(timer.key);
+                    handler.expired(timer.key, timer.value);
+                }
+                timer = next;
+            }
+        }
+        now = toTick;
+    }
+
+    private void link(Timer<V> timer) {
+        int bucket = (int) (timer.deadline & mask);
+        timer.bucket = bucket;
+        timer.prev = null;
+        timer.next = buckets[bucket];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        buckets[bucket] = timer;
+    }
+
+    private void unlink(Timer<V> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[timer.bucket] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+    }
+}
@@ -14,21 +14,25 @@ public class UserService {
     private UserRepository userRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
 
     public User registerUser(String username, String password) {
-        String cleanUsername = username.trim(); // Remove .toLowerCase()
-        if (userRepository.findByUsernameIgnoreCase(cleanUsername).isPresent()) {
+        String cleanUsername = username.trim();
+        if (userRepository.lookupByUsername(cleanUsername).isPresent()) {
             throw new RuntimeException("Username already exists");
         }
         User user = new User();
         user.setUsername(cleanUsername);
         user.setPassword(passwordEncoder.encode(password));
         user.setRole("USER");
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        customUserDetailsService.evictUser(cleanUsername);
+        return saved;
     }
 
     public User getByUsername(String username) {
-        return userRepository.findByUsernameIgnoreCase(username.trim()).orElse(null); // Remove .toLowerCase()
+        return userRepository.lookupByUsername(username.trim()).orElse(null);
     }
 
     public List<User> getAllUsers() {
@@ -37,13 +41,15 @@ public class UserService {
 
     public User createUserByAdmin(String username, String password, String role) {
         String cleanUsername = username.trim();
-        if (userRepository.findByUsernameIgnoreCase(cleanUsername).isPresent()) {
+        if (userRepository.lookupByUsername(cleanUsername).isPresent()) {
             throw new RuntimeException("Username already exists");
         }
         User user = new User();
         user.setUsername(cleanUsername);
         user.setPassword(passwordEncoder.encode(password));
         user.setRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        customUserDetailsService.evictUser(cleanUsername);
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.todolist.todoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// POSTs each reminder as JSON to tasks.reminders.webhook-url. Fire and forget: requests are sent
+// asynchronously and a failed delivery is only logged, not retried.
+@Component
+@ConditionalOnProperty(name = "tasks.reminders.sink", havingValue = "webhook")
+public class WebhookReminderSink implements TaskReminderSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookReminderSink.class);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper;
+    private final URI url;
+
+    public WebhookReminderSink(ObjectMapper objectMapper, @Value("${tasks.reminders.webhook-url}") String url) {
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+    }
+
+    @Override
+    public void remind(TaskReminder reminder) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(reminder);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot encode reminder for task " + reminder.taskId(), e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error != null) {
+                logger.warn("Reminder webhook for task {} failed", reminder.taskId(), error);
+            } else if (response.statusCode() >= 300) {
+                logger.warn("Reminder webhook for task {} answered {}", reminder.taskId(), response.statusCode());
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.todolist.todoapp.controller;
+
+import com.todolist.todoapp.model.User;
+import com.todolist.todoapp.repository.UserRepository;
+import com.todolist.todoapp.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:authcontrollertests;DB_CLOSE_DELAY=-1",
+		"auth.hashing.threads=1",
+		"auth.hashing.queue-capacity=1",
+		"auth.bcrypt.strength=5"
+})
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PasswordHashingExecutor passwordHashingExecutor;
+
+	@Test
+	void loginRehashesPasswordsBelowTheConfiguredCost() throws Exception {
+		User user = new User();
+		user.setUsername("ivan");
+		user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+		userRepository.save(user);
+
+		MvcResult login = mockMvc.perform(post("/api/auth/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"ivan\",\"password\":\"secret\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(login))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.token").exists());
+
+		String rehashed = userRepository.lookupByUsername("ivan").orElseThrow().getPassword();
+		assertTrue(rehashed.startsWith("$2a$05$"), rehashed);
+	}
+
+	@Test
+	void loginIsRejectedWith503WhenTheHashingPoolIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		// One task running on the single thread, one waiting in the queue of one
+		CompletableFuture<?> running = passwordHashingExecutor.submit(() -> await(release));
+		CompletableFuture<?> queued = passwordHashingExecutor.submit(() -> await(release));
+		try {
+			MvcResult login = mockMvc.perform(post("/api/auth/login")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"username\":\"nobody\",\"password\":\"secret\"}"))
+					.andReturn();
+			mockMvc.perform(asyncDispatch(login))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string("Retry-After", "1"));
+		} finally {
+			release.countDown();
+		}
+		running.get(5, TimeUnit.SECONDS);
+		queued.get(5, TimeUnit.SECONDS);
+	}
+
+	private static boolean await(CountDownLatch latch) {
+		try {
+			return latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
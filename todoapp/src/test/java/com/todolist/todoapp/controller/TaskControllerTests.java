@@ -0,0 +1,282 @@
+package com.todolist.todoapp.controller;
+
+import com.todolist.todoapp.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.service.UserService;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.hasItem;
+import static com.todolist.todoapp.repository.SqlStatementAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:taskcontrollertests;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class TaskControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private JwtUtil jwtUtil;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private PrometheusMeterRegistry prometheusRegistry;
+
+	private String bearer;
+
+	@BeforeEach
+	void login() {
+		if (userService.getByUsername("frank") == null) {
+			userService.registerUser("frank", "secret");
+		}
+		bearer = "Bearer " + jwtUtil.generateToken("frank");
+	}
+
+	@Test
+	void unchangedListingIsAnsweredWith304() throws Exception {
+		String etag = mockMvc.perform(get("/api/tasks").header("Authorization", bearer))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("ETag"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/api/tasks").header("Authorization", bearer).header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"new\",\"owner\":\"frank\",\"assignee\":\"frank\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/tasks").header("Authorization", bearer).header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[*].title", hasItem("new")));
+	}
+
+	@Test
+	void streamPushesChangesToSubscribers() throws Exception {
+		MvcResult stream = mockMvc.perform(get("/api/tasks/stream").header("Authorization", bearer))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"pushed\",\"owner\":\"frank\",\"assignee\":\"frank\"}"))
+				.andExpect(status().isOk());
+
+		long deadline = System.currentTimeMillis() + 5000;
+		String body = "";
+		while (!body.contains("pushed") && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			body = stream.getResponse().getContentAsString();
+		}
+		assertTrue(body.contains("event:created"), body);
+		assertTrue(body.contains("\"title\":\"pushed\""), body);
+	}
+
+	@Test
+	void prometheusExposesRequestAuthAndHibernateMetricsOffTheApiPort() throws Exception {
+		mockMvc.perform(get("/api/tasks").header("Authorization", bearer)).andExpect(status().isOk());
+
+		// Actuator lives on management.server.port; the API port does not serve it, with or without a JWT
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isNotFound());
+		mockMvc.perform(get("/actuator/prometheus").header("Authorization", bearer)).andExpect(status().isNotFound());
+
+		String scrape = prometheusRegistry.scrape();
+		for (String expected : new String[] {
+				"http_server_requests_seconds_count{", "uri=\"/api/tasks\"",
+				"auth_jwt_verify_seconds_count{outcome=\"valid\"", "auth_user_load_seconds_count",
+				"auth_jwt_cache_requests_total", "hibernate_statements_total",
+				"hibernate_second_level_cache_requests_total{", "region=\"user\"",
+				"hibernate_cache_natural_id_requests_total{" }) {
+			assertTrue(scrape.contains(expected), expected);
+		}
+	}
+
+	@Test
+	void listingWithoutALimitIsStillOnePage() throws Exception {
+		userService.registerUser("lena", "secret");
+		String lena = "Bearer " + jwtUtil.generateToken("lena");
+		String create = "{\"op\":\"CREATE\",\"task\":{\"title\":\"bulk\",\"owner\":\"lena\",\"assignee\":\"lena\"}}";
+		mockMvc.perform(post("/api/tasks/batch").header("Authorization", lena)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[" + String.join(",", Collections.nCopies(501, create)) + "]"))
+				.andExpect(status().isOk());
+
+		String cursor = mockMvc.perform(get("/api/tasks").header("Authorization", lena))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(500))
+				.andExpect(header().exists("X-Next-Cursor"))
+				.andReturn().getResponse().getHeader("X-Next-Cursor");
+		mockMvc.perform(get("/api/tasks").param("after", cursor).header("Authorization", lena))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(header().doesNotExist("X-Next-Cursor"));
+	}
+
+	@Test
+	void jsonAndSmileListingsDoNotShareAnETag() throws Exception {
+		String json = mockMvc.perform(get("/api/tasks").header("Authorization", bearer).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		String smile = mockMvc.perform(get("/api/tasks").header("Authorization", bearer).accept("application/x-jackson-smile"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		assertNotEquals(json, smile);
+
+		// A validator for one format must not revalidate the other
+		mockMvc.perform(get("/api/tasks").header("Authorization", bearer).accept("application/x-jackson-smile")
+						.header("If-None-Match", json))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-jackson-smile"));
+		mockMvc.perform(get("/api/tasks").header("Authorization", bearer).accept(MediaType.APPLICATION_JSON)
+						.header("If-None-Match", smile))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/tasks").header("Authorization", bearer).header("Accept", "*/*")
+						.header("If-None-Match", json))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void listingIsNegotiatedBetweenJsonAndSmile() throws Exception {
+		mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"binary\",\"owner\":\"frank\",\"assignee\":\"frank\",\"dueDate\":\"2030-01-02T03:04\"}"))
+				.andExpect(status().isOk());
+
+		String json = mockMvc.perform(get("/api/tasks").header("Authorization", bearer))
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getContentAsString();
+		byte[] smile = mockMvc.perform(get("/api/tasks").header("Authorization", bearer)
+						.accept("application/x-jackson-smile"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-jackson-smile"))
+				.andExpect(header().stringValues("Vary", hasItem("Authorization, Accept")))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		TaskDTO[] fromSmile = objectMapper.copyWith(new SmileFactory()).readValue(smile, TaskDTO[].class);
+		assertEquals(json, objectMapper.writeValueAsString(fromSmile));
+		assertTrue(smile.length < json.length(), smile.length + " >= " + json.length());
+	}
+
+	@Test
+	void patchChangesOnlyTheGivenFieldsAndRejectsStaleVersions() throws Exception {
+		String created = mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"patch me\",\"description\":\"keep\",\"priority\":2,\"owner\":\"frank\",\"assignee\":\"frank\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(0))
+				.andReturn().getResponse().getContentAsString();
+		long id = objectMapper.readTree(created).get("id").asLong();
+
+		assertStatementCount(1, () -> mockMvc.perform(patch("/api/tasks/" + id).header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"completed\":true,\"version\":0}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.completed").value(true))
+				.andExpect(jsonPath("$.title").value("patch me"))
+				.andExpect(jsonPath("$.description").value("keep"))
+				.andExpect(jsonPath("$.priority").value(2))
+				.andExpect(jsonPath("$.owner").value("frank"))
+				.andExpect(jsonPath("$.version").value(1)));
+
+		// A second editor still holding version 0
+		mockMvc.perform(patch("/api/tasks/" + id).header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"priority\":5,\"version\":0}"))
+				.andExpect(status().isConflict());
+		mockMvc.perform(put("/api/tasks/" + id).header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"overwrite\",\"version\":0}"))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(patch("/api/tasks/" + id).header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"description\":null}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.description").doesNotExist())
+				.andExpect(jsonPath("$.completed").value(true))
+				.andExpect(jsonPath("$.version").value(2));
+	}
+
+	@Test
+	void malformedInputIsABadRequest() throws Exception {
+		mockMvc.perform(get("/api/tasks").param("limit", "10").param("after", "not-a-cursor!").header("Authorization", bearer))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Invalid cursor"));
+
+		String created = mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"null patch\",\"owner\":\"frank\",\"assignee\":\"frank\"}"))
+				.andReturn().getResponse().getContentAsString();
+		mockMvc.perform(patch("/api/tasks/" + objectMapper.readTree(created).get("id").asLong()).header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"completed\":null}"))
+				.andExpect(status().isBadRequest());
+
+		String oversized = "[" + String.join(",", Collections.nCopies(1001, "{\"op\":\"DELETE\",\"id\":-1}")) + "]";
+		mockMvc.perform(post("/api/tasks/batch").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(oversized))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Batch exceeds 1000 operations"));
+	}
+
+	@Test
+	void endpointsIssueAFixedNumberOfStatements() throws Exception {
+		// Warm the principal cache and the pooled id sequences (Hibernate's pooled optimizer hits the
+		// sequence on its first two allocations) so only the endpoint's own statements are counted
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"title\":\"warm-up\",\"owner\":\"frank\",\"assignee\":\"frank\"}"))
+					.andExpect(status().isOk());
+		}
+		String warmUp = mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"warm-up\",\"owner\":\"frank\",\"assignee\":\"frank\"}"))
+				.andReturn().getResponse().getContentAsString();
+		mockMvc.perform(delete("/api/tasks/" + objectMapper.readTree(warmUp).get("id").asLong()).header("Authorization", bearer))
+				.andExpect(status().isOk());
+
+		String created = assertStatementCount(1, () -> mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"counted\",\"owner\":\"frank\",\"assignee\":\"frank\"}"))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+		long id = objectMapper.readTree(created).get("id").asLong();
+
+		assertStatementCount(2, () -> mockMvc.perform(get("/api/tasks").header("Authorization", bearer))
+				.andExpect(status().isOk()));
+		assertStatementCount(2, () -> mockMvc.perform(get("/api/tasks/changes").header("Authorization", bearer))
+				.andExpect(status().isOk()));
+		assertStatementCount(0, () -> mockMvc.perform(get("/api/tasks/search").param("q", "count").header("Authorization", bearer))
+				.andExpect(status().isOk()));
+		assertStatementCount(0, () -> mockMvc.perform(get("/api/tasks/stats").header("Authorization", bearer))
+				.andExpect(status().isOk()));
+		assertStatementCount(1, () -> mockMvc.perform(put("/api/tasks/" + id).header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"recounted\",\"completed\":true}"))
+				.andExpect(status().isOk()));
+		assertStatementCount(2, () -> mockMvc.perform(delete("/api/tasks/" + id).header("Authorization", bearer))
+				.andExpect(status().isOk()));
+	}
+}
@@ -0,0 +1,57 @@
+package com.todolist.todoapp.controller;
+
+import com.todolist.todoapp.service.TaskEvent;
+import com.todolist.todoapp.service.TaskEventBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventBroadcasterTests {
+
+	@Test
+	void aStalledSubscriberDoesNotHoldUpTheOthers() throws Exception {
+		TaskEventBus eventBus = new TaskEventBus();
+		// One sender thread, so without the watchdog the stalled send would starve the healthy subscriber
+		TaskEventBroadcaster broadcaster = new TaskEventBroadcaster(eventBus, 16, 60_000, 1, 60_000, 100);
+		CountDownLatch stalled = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch received = new CountDownLatch(1);
+		try {
+			broadcaster.subscribe(1L, false, new SseEmitter() {
+				@Override
+				public void send(SseEventBuilder event) throws IOException {
+					stalled.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					throw new IOException("Broken pipe");
+				}
+			});
+			broadcaster.subscribe(2L, false, new SseEmitter() {
+				@Override
+				public void send(SseEventBuilder event) {
+					received.countDown();
+				}
+			});
+
+			eventBus.publish(List.of(new TaskEvent(TaskEvent.Type.DELETED, 1L, null, Set.of(1L))));
+			assertTrue(stalled.await(5, TimeUnit.SECONDS));
+			eventBus.publish(List.of(new TaskEvent(TaskEvent.Type.DELETED, 2L, null, Set.of(2L))));
+
+			assertTrue(received.await(5, TimeUnit.SECONDS), "healthy subscriber starved by a stalled one");
+			assertEquals(1, broadcaster.subscriberCount());
+		} finally {
+			release.countDown();
+			broadcaster.shutdown();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.todolist.todoapp.dto;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.todolist.todoapp.TodoappApplication;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskDTOSerializerTests {
+
+	// Puts the default bean serializer back, to compare against
+	@JsonSerialize(using = JsonSerializer.None.class)
+	private abstract static class BeanSerialized {}
+
+	private final ObjectMapper mapper = new TodoappApplication().objectMapper();
+
+	@Test
+	void writesTheSameJsonAsTheBeanSerializer() throws Exception {
+		ObjectMapper beanMapper = mapper.copy().addMixIn(TaskDTO.class, BeanSerialized.class);
+		List<TaskDTO> tasks = List.of(
+				new TaskDTO(1L, "Write \"report\"", "due soon", LocalDateTime.of(2024, 5, 1, 9, 30), true, 3,
+						"alice", "bob", 42L, LocalDateTime.of(2024, 4, 30, 18, 0, 5), 3L),
+				new TaskDTO(2L, "Untitled", null, null, false, 0, "alice", null, null, null, null));
+
+		assertEquals(beanMapper.writeValueAsString(tasks), mapper.writeValueAsString(tasks));
+	}
+
+	@Test
+	void roundTripsThroughSmile() throws Exception {
+		ObjectMapper smile = mapper.copyWith(new SmileFactory());
+		TaskDTO task = new TaskDTO(7L, "Ship it", "", LocalDateTime.of(2024, 1, 2, 3, 4), false, 5,
+				"carol", "dave", 9L, LocalDateTime.of(2024, 1, 1, 0, 0), 0L);
+
+		TaskDTO read = smile.readValue(smile.writeValueAsBytes(task), TaskDTO.class);
+
+		assertEquals(mapper.writeValueAsString(task), mapper.writeValueAsString(read));
+	}
+}
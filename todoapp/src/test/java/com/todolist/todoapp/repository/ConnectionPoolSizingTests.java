@@ -0,0 +1,29 @@
+package com.todolist.todoapp.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolSizingTests {
+
+	@Test
+	void sizesThePoolToTheCoresEvenBehindTheStatementCounter() {
+		HikariDataSource hikari = new HikariDataSource();
+		new ConnectionPoolSizing().postProcessAfterInitialization(ProxyDataSourceBuilder.create(hikari).build(), "dataSource");
+
+		assertEquals(Math.max(2, Runtime.getRuntime().availableProcessors()), hikari.getMaximumPoolSize());
+	}
+
+	@Test
+	void configuredSizeWins() {
+		ConnectionPoolSizing sizing = new ConnectionPoolSizing();
+		ReflectionTestUtils.setField(sizing, "poolSize", 3);
+		HikariDataSource hikari = new HikariDataSource();
+		sizing.postProcessAfterInitialization(hikari, "dataSource");
+
+		assertEquals(3, hikari.getMaximumPoolSize());
+	}
+}
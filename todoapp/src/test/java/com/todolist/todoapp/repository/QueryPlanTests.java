@@ -0,0 +1,176 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs H2's EXPLAIN on the SQL Hibernate actually generates for each repository query and fails
+// when a table is read without an index condition. An unconditioned index scan is only accepted when
+// it is index sorted and limited, i.e. the first page of an ordered listing. findAllAsDTO and streamAll
+// are full listings by design and are not checked.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.todolist.todoapp.repository.QueryPlanTests$CapturingInspector")
+@Import(SecondLevelCacheConfig.class)
+class QueryPlanTests {
+
+	public static class CapturingInspector implements StatementInspector {
+		static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public String inspect(String sql) {
+			statements.add(sql);
+			return sql;
+		}
+	}
+
+	// Table reference in a plan followed by the access path comment H2 prints under it
+	private static final Pattern TABLE_ACCESS =
+			Pattern.compile("(?:\"PUBLIC\"\\.\"(TASK|APP_USER)\"|PUBLIC\\.(TASK|APP_USER)) \"?\\w+\"?\\s*\\n\\s*/\\* ([^\\n]*)");
+
+	@Autowired
+	private TaskRepository taskRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private EntityManager entityManager;
+
+	private User user;
+	private Task task;
+
+	@BeforeEach
+	void seed() {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			User u = new User();
+			u.setUsername("planner" + i);
+			u.setPassword("x");
+			users.add(userRepository.save(u));
+		}
+		LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+		for (int i = 0; i < 2000; i++) {
+			Task t = new Task();
+			t.setTitle("task " + i);
+			t.setOwner(users.get(i % 50));
+			t.setAssignee(users.get((i * 7) % 50));
+			t.setDueDate(i % 10 == 0 ? null : base.plusHours(i));
+			t.setCompleted(i % 3 == 0);
+			t.setPriority(i % 2);
+			task = taskRepository.save(t);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		user = users.get(3);
+		CapturingInspector.statements.clear();
+	}
+
+	@Test
+	void ownerAndAssigneeListingsSeekIndexes() {
+		taskRepository.findByOwnerOrAssignee(user, user);
+		taskRepository.findByAssignee(user);
+		taskRepository.findByOwnerAndAssigneeNot(user, user);
+		try (Stream<?> exported = taskRepository.streamVisibleTo(user.getId())) {
+			exported.count();
+		}
+		assertNoTableScans(4);
+	}
+
+	@Test
+	void adminPagesUseTheDueDateIndex() {
+		LocalDateTime cursorDue = LocalDateTime.of(2030, 1, 20, 0, 0);
+		taskRepository.findPage(null, null, null, null, null, null, null, Limit.of(20));
+		taskRepository.findPage(null, null, null, null, null, cursorDue, task.getId(), Limit.of(20));
+		taskRepository.findPage(null, false, null, null, cursorDue, null, null, Limit.of(20)); // overdue
+		taskRepository.findPage(null, null, 1, cursorDue, cursorDue.plusDays(3), null, null, Limit.of(20));
+		assertNoTableScans(4);
+	}
+
+	@Test
+	void userPagesSeekOwnerAndAssigneeIndexes() {
+		LocalDateTime cursorDue = LocalDateTime.of(2030, 1, 20, 0, 0);
+		taskRepository.findPage(user.getId(), null, null, null, null, null, null, Limit.of(20));
+		taskRepository.findPage(user.getId(), false, null, null, null, cursorDue, task.getId(), Limit.of(20));
+		taskRepository.findPage(user.getId(), null, null, null, null, null, task.getId(), Limit.of(20)); // undated tail
+		assertNoTableScans(3);
+	}
+
+	@Test
+	void reminderRefillSeeksTheDueDateIndex() {
+		LocalDateTime from = LocalDateTime.of(2030, 1, 20, 0, 0);
+		try (Stream<?> due = taskRepository.streamOpenDueBetween(from, from.plusDays(1))) {
+			// 24 hourly tasks, less the undated and the completed ones
+			assertEquals(14, due.count());
+		}
+		assertNoTableScans(1);
+	}
+
+	@Test
+	void deltaSyncSeeksTheChangeVersionIndex() {
+		taskRepository.findChangedBetween(10, 500, Limit.of(100));
+		assertNoTableScans(1);
+		assertTrue(explain(CapturingInspector.statements.get(0)).contains("IX_TASK_CHANGE_VERSION"),
+				"admin delta sync should range scan ix_task_change_version");
+
+		CapturingInspector.statements.clear();
+		taskRepository.findChangedBetweenVisibleTo(user.getId(), 10, 500, Limit.of(100));
+		assertNoTableScans(1);
+	}
+
+	@Test
+	void singleRowLookupsSeekIndexes() {
+		taskRepository.findById(task.getId());
+		userRepository.lookupByUsername("Planner3");
+		userRepository.findByUsernameNormalizedIn(Set.of("planner1", "planner2"));
+		assertNoTableScans(3);
+	}
+
+	private void assertNoTableScans(int minStatements) {
+		List<String> statements = new ArrayList<>(CapturingInspector.statements);
+		assertTrue(statements.size() >= minStatements, "expected at least " + minStatements + " statements");
+		for (String sql : statements) {
+			String plan = explain(sql);
+			boolean boundedOrderedScan = plan.contains("/* index sorted */") && sql.contains("fetch first");
+			Matcher access = TABLE_ACCESS.matcher(plan);
+			int tables = 0;
+			while (access.find()) {
+				tables++;
+				String path = access.group(3);
+				assertFalse(path.contains("tableScan"), () -> "table scan in\n" + sql + "\n" + plan);
+				assertTrue(path.contains(":") || boundedOrderedScan, () -> "unbounded index scan in\n" + sql + "\n" + plan);
+			}
+			assertTrue(tables > 0, () -> "no table access found in plan\n" + plan);
+		}
+	}
+
+	private String explain(String sql) {
+		return jdbcTemplate.execute((java.sql.Connection connection) -> {
+			try (PreparedStatement explain = connection.prepareStatement("explain " + sql);
+				 ResultSet rs = explain.executeQuery()) {
+				rs.next();
+				return rs.getString(1);
+			}
+		});
+	}
+}
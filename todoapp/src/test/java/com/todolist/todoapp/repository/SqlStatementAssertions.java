@@ -0,0 +1,23 @@
+package com.todolist.todoapp.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Pins how many SQL statements a piece of code issues, e.g. one MockMvc call. MockMvc runs the request
+// on the calling thread, so everything the endpoint and its filters execute is counted.
+public final class SqlStatementAssertions {
+
+	@FunctionalInterface
+	public interface Action<T> {
+		T run() throws Exception;
+	}
+
+	private SqlStatementAssertions() {}
+
+	public static <T> T assertStatementCount(int expected, Action<T> action) throws Exception {
+		try (SqlStatementCounter.Scope statements = SqlStatementCounter.open()) {
+			T result = action.run();
+			assertEquals(expected, statements.count(), "SQL statements issued");
+			return result;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(SecondLevelCacheConfig.class)
+class TaskRepositoryTests {
+
+	@Autowired
+	private TaskRepository taskRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User alice;
+	private User bob;
+
+	@BeforeEach
+	void seed() {
+		alice = userRepository.save(user("alice"));
+		bob = userRepository.save(user("bob"));
+		LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+		for (int i = 0; i < 10; i++) {
+			// two tasks share each due date, the last two have none
+			LocalDateTime due = i < 8 ? base.plusDays(i / 2) : null;
+			taskRepository.save(task("task " + i, due, i % 2 == 0 ? alice : bob, alice));
+		}
+		taskRepository.save(task("bob only", base, bob, bob));
+	}
+
+	@Test
+	void keysetPagesCoverEveryVisibleTaskOnceInOrder() {
+		List<TaskDTO> seen = new ArrayList<>();
+		LocalDateTime afterDue = null;
+		Long afterId = null;
+		while (true) {
+			List<TaskDTO> page = taskRepository.findPage(alice.getId(), null, null, null, null, afterDue, afterId, Limit.of(3));
+			if (page.isEmpty()) {
+				break;
+			}
+			seen.addAll(page);
+			TaskDTO last = page.get(page.size() - 1);
+			afterDue = last.getDueDate();
+			afterId = last.getId();
+		}
+
+		assertEquals(10, seen.size());
+		for (int i = 1; i < seen.size(); i++) {
+			TaskDTO prev = seen.get(i - 1);
+			TaskDTO cur = seen.get(i);
+			if (prev.getDueDate() != null && cur.getDueDate() != null) {
+				assertTrue(prev.getDueDate().isBefore(cur.getDueDate())
+						|| (prev.getDueDate().equals(cur.getDueDate()) && prev.getId() < cur.getId()));
+			} else {
+				assertNull(cur.getDueDate());
+			}
+		}
+	}
+
+	@Test
+	void filtersApplyServerSide() {
+		List<TaskDTO> all = taskRepository.findPage(null, null, null, null, null, null, null, Limit.unlimited());
+		List<TaskDTO> dueWindow = taskRepository.findPage(null, false, null,
+				LocalDateTime.of(2030, 1, 2, 0, 0), LocalDateTime.of(2030, 1, 3, 23, 59), null, null, Limit.unlimited());
+
+		assertEquals(11, all.size());
+		assertEquals(4, dueWindow.size());
+	}
+
+	@Test
+	void exportStreamHonoursVisibility() {
+		try (Stream<TaskDTO> mine = taskRepository.streamVisibleTo(bob.getId());
+			 Stream<TaskDTO> all = taskRepository.streamAll()) {
+			assertEquals(6, mine.count());
+			assertEquals(11, all.count());
+		}
+	}
+
+	@Test
+	void listingIsASingleStatementWithUsernamesJoined() {
+		for (int i = 0; i < 200; i++) {
+			User owner = userRepository.save(user("owner" + i));
+			User assignee = userRepository.save(user("assignee" + i));
+			taskRepository.save(task("bulk " + i, null, owner, assignee));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<TaskDTO> all = taskRepository.findAllAsDTO();
+		List<TaskDTO> page = taskRepository.findPage(null, null, null, null, null, null, null, Limit.of(1000));
+		List<TaskDTO> mine = taskRepository.findByOwnerOrAssignee(alice, alice);
+
+		assertEquals(211, all.size());
+		assertEquals(211, page.size());
+		assertEquals(10, mine.size());
+		assertTrue(all.stream().allMatch(t -> t.getOwner() != null && t.getAssignee() != null));
+		// findPage reads the dated range and the undated tail separately
+		assertEquals(4, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	private static User user(String name) {
+		User user = new User();
+		user.setUsername(name);
+		user.setPassword("x");
+		return user;
+	}
+
+	private static Task task(String title, LocalDateTime due, User owner, User assignee) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDueDate(due);
+		task.setOwner(owner);
+		task.setAssignee(assignee);
+		return task;
+	}
+}
@@ -0,0 +1,40 @@
+package com.todolist.todoapp.repository;
+
+import com.todolist.todoapp.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SecondLevelCacheConfig.class)
+class UserRepositoryTests {
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void lookupIsCaseInsensitive() {
+		User user = new User();
+		user.setUsername("Erin");
+		user.setPassword("x");
+		userRepository.save(user);
+
+		assertEquals("erin", user.getUsernameNormalized());
+		assertTrue(userRepository.lookupByUsername(" ERIN ").isPresent());
+		assertTrue(userRepository.lookupByUsername("nobody").isEmpty());
+	}
+
+	@Test
+	void lookupSeeksTheNormalizedUsernameIndex() {
+		String plan = jdbcTemplate.queryForObject(
+				"explain select * from app_user where username_normalized = 'erin'", String.class);
+
+		assertTrue(plan.toUpperCase().contains("UX_APP_USER_USERNAME_NORMALIZED"), plan);
+	}
+}
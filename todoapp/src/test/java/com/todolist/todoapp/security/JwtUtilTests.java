@@ -0,0 +1,32 @@
+package com.todolist.todoapp.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTests {
+
+	@Test
+	void repeatVerificationIsServedFromCache() {
+		JwtUtil jwtUtil = new JwtUtil(100);
+		String token = jwtUtil.generateToken("alice");
+
+		VerifiedToken first = jwtUtil.verify(token);
+		VerifiedToken second = jwtUtil.verify(token);
+
+		assertEquals("alice", first.username());
+		assertSame(first, second);
+		assertEquals(1, jwtUtil.getCacheMisses());
+		assertEquals(1, jwtUtil.getCacheHits());
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		JwtUtil jwtUtil = new JwtUtil(100);
+		String token = jwtUtil.generateToken("alice");
+
+		assertNull(jwtUtil.verify(token.substring(0, token.length() - 2) + "xx"));
+		assertFalse(jwtUtil.validateJwtToken("not-a-jwt"));
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.todolist.todoapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTests {
+
+	@Test
+	void entriesExpireAfterTheirTtl() {
+		PrincipalCache fresh = new PrincipalCache(10, 60_000);
+		fresh.put(new PrincipalCache.Principal(1L, "Ivy", "hash", "USER"));
+		assertEquals("USER", fresh.get(" IVY ").role());
+
+		// A zero TTL expires every entry on its first read, so an out-of-band role change is reloaded
+		PrincipalCache expired = new PrincipalCache(10, 0);
+		expired.put(new PrincipalCache.Principal(1L, "Ivy", "hash", "USER"));
+		assertNull(expired.get("ivy"));
+		assertEquals(1, expired.getEvictions());
+		assertEquals(0, expired.size());
+	}
+
+	@Test
+	void invalidateAndSizeBoundEvict() {
+		PrincipalCache cache = new PrincipalCache(2, 60_000);
+		cache.put(new PrincipalCache.Principal(1L, "a", "hash", "USER"));
+		cache.put(new PrincipalCache.Principal(2L, "b", "hash", "USER"));
+		cache.invalidate("A");
+		assertNull(cache.get("a"));
+		cache.put(new PrincipalCache.Principal(3L, "c", "hash", "USER"));
+		cache.put(new PrincipalCache.Principal(4L, "d", "hash", "USER"));
+		assertNull(cache.get("b"));
+		assertEquals(2, cache.getEvictions());
+	}
+}
@@ -0,0 +1,129 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskDue;
+import com.todolist.todoapp.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The real ticker runs too, but nothing in here comes due in real time
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:taskreminderschedulertests;DB_CLOSE_DELAY=-1",
+		"tasks.reminders.lead-minutes=60"
+})
+class TaskReminderSchedulerTests {
+
+	@TestConfiguration
+	static class RecordingSinkConfig {
+		@Bean
+		List<TaskReminder> reminders() {
+			return new CopyOnWriteArrayList<>();
+		}
+
+		@Bean
+		TaskReminderSink recordingSink(List<TaskReminder> reminders) {
+			return reminders::add;
+		}
+	}
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private TaskReminderScheduler scheduler;
+	@Autowired
+	private List<TaskReminder> reminders;
+
+	@BeforeEach
+	void users() {
+		if (userService.getByUsername("quinn") == null) {
+			userService.registerUser("quinn", "secret");
+			userService.registerUser("rosa", "secret");
+		}
+	}
+
+	@Test
+	void remindsBeforeAndAtTheDueDateAndFollowsUpdatesAndDeletes() {
+		LocalDateTime now = LocalDateTime.now();
+		Task due = taskService.createTask(dto("due in two hours", now.plusHours(2)), "quinn");
+		Task moved = taskService.createTask(dto("moved out", now.plusHours(2)), "quinn");
+		Task deleted = taskService.createTask(dto("deleted", now.plusHours(2)), "quinn");
+		Task done = taskService.createTask(dto("completed", now.plusHours(2)), "quinn");
+		int scheduled = scheduler.scheduled();
+
+		TaskDTO later = dto("moved out", now.plusHours(5));
+		taskService.updateTask(moved.getId(), later, "quinn");
+		taskService.deleteTask(deleted.getId(), "quinn");
+		TaskDTO completed = dto("completed", now.plusHours(2));
+		completed.setCompleted(true);
+		taskService.updateTask(done.getId(), completed, "quinn");
+		assertEquals(scheduled - 2, scheduler.scheduled());
+
+		scheduler.advanceTo(now.plusMinutes(59));
+		assertTrue(reminders.isEmpty(), reminders.toString());
+		scheduler.advanceTo(now.plusMinutes(61));
+		assertEquals(List.of(new TaskReminder(TaskReminder.Type.UPCOMING, due.getId(), due.getDueDate(),
+				Set.of(userId("quinn"), userId("rosa")))), reminders);
+
+		scheduler.advanceTo(now.plusHours(2).plusSeconds(1));
+		assertEquals(TaskReminder.Type.OVERDUE, reminders.get(1).type());
+		assertEquals(due.getId(), reminders.get(1).taskId());
+		scheduler.advanceTo(now.plusHours(4).plusSeconds(1));
+		scheduler.advanceTo(now.plusHours(5).plusSeconds(1));
+		assertEquals(List.of(due.getId(), due.getId(), moved.getId(), moved.getId()),
+				reminders.stream().map(TaskReminder::taskId).toList());
+	}
+
+	@Test
+	void refillRowsReadBeforeConcurrentEventsDoNotUndoThem() {
+		LocalDateTime now = LocalDateTime.now();
+		Task deleted = taskService.createTask(dto("deleted during refill", now.plusHours(2)), "quinn");
+		Task edited = taskService.createTask(dto("edited during refill", now.plusHours(2)), "quinn");
+		// The rows as the refill query read them, before the changes below committed
+		List<TaskDue> read = List.of(due(deleted), due(edited));
+
+		LocalDateTime[] range = scheduler.beginRefill(now.plusHours(13));
+		assertNotNull(range);
+		try {
+			int scheduled = scheduler.scheduled();
+			// Events apply right away instead of waiting for the query
+			taskService.deleteTask(deleted.getId(), "quinn");
+			taskService.updateTask(edited.getId(), dto("edited during refill", now.plusHours(3)), "quinn");
+			assertEquals(scheduled - 1, scheduler.scheduled());
+
+			assertEquals(0, scheduler.load(read, now));
+			assertEquals(scheduled - 1, scheduler.scheduled());
+		} finally {
+			scheduler.endRefill(range[0], true);
+		}
+	}
+
+	private TaskDue due(Task task) {
+		return new TaskDue(task.getId(), task.getDueDate(), userId("quinn"), userId("rosa"), task.getChangeVersion());
+	}
+
+	private Long userId(String username) {
+		return userService.getByUsername(username).getId();
+	}
+
+	private static TaskDTO dto(String title, LocalDateTime dueDate) {
+		TaskDTO dto = new TaskDTO();
+		dto.setTitle(title);
+		dto.setDueDate(dueDate);
+		dto.setOwner("quinn");
+		dto.setAssignee("rosa");
+		return dto;
+	}
+}
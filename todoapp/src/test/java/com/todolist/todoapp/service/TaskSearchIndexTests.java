@@ -0,0 +1,98 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTests {
+
+	private TaskEventBus eventBus;
+	private TaskSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		eventBus = new TaskEventBus();
+		index = new TaskSearchIndex(eventBus);
+		publish(TaskEvent.Type.CREATED, task(1L, "Quarterly report", "numbers for finance", "alice", "bob", 1L));
+		publish(TaskEvent.Type.CREATED, task(2L, "Fix printer", "the report printer jams", "bob", "bob", 2L));
+		publish(TaskEvent.Type.CREATED, task(3L, "Reporting dashboard", null, "carol", "carol", 3L));
+	}
+
+	@Test
+	void ranksTitleAndExactMatchesFirst() {
+		assertEquals(List.of(1L, 3L, 2L), ids(index.search("report", null, 10)));
+		assertEquals(List.of(2L), ids(index.search("PRINT rep", null, 10)));
+		assertEquals(List.of(1L), ids(index.search("report", null, 1)));
+		assertTrue(index.search("nothing", null, 10).isEmpty());
+		assertTrue(index.search("  ", null, 10).isEmpty());
+	}
+
+	@Test
+	void onlyReturnsTasksTheUserOwnsOrIsAssigned() {
+		assertEquals(List.of(1L, 2L), ids(index.search("report", "Bob", 10)));
+		assertEquals(List.of(1L), ids(index.search("report", "alice", 10)));
+		assertTrue(index.search("report", "dave", 10).isEmpty());
+	}
+
+	@Test
+	void matchesPrefixesForSingleUsers() {
+		assertEquals(List.of(2L), ids(index.search("pri REP", "bob", 10)));
+		assertEquals(List.of(3L), ids(index.search("rep dash", "carol", 10)));
+		assertTrue(index.search("dash", "bob", 10).isEmpty());
+	}
+
+	@Test
+	void prefixesWiderThanTheExpansionCapStillFindEveryTask() {
+		// 300 distinct words under "a", one task each; the last ones sort past the first 256
+		for (long i = 0; i < 300; i++) {
+			publish(TaskEvent.Type.CREATED, task(100 + i, String.format("aa%03d report", i), null,
+					i == 299 ? "dave" : "erin", "erin", 100 + i));
+		}
+
+		assertEquals(300, index.search("a", null, 1000).size());
+		assertEquals(300, index.search("aa rep", null, 1000).size());
+		assertEquals(List.of(399L), ids(index.search("a", "dave", 10)));
+		assertEquals(List.of(399L), ids(index.search("aa299", null, 10)));
+	}
+
+	@Test
+	void followsUpdatesAndDeletes() {
+		publish(TaskEvent.Type.UPDATED, task(1L, "Budget", "numbers", "alice", "alice", 5L));
+		// A stale event delivered late must not undo the newer update
+		publish(TaskEvent.Type.UPDATED, task(1L, "Quarterly report", null, "alice", "bob", 4L));
+		eventBus.publish(List.of(new TaskEvent(TaskEvent.Type.DELETED, 3L, null, Set.of())));
+
+		assertEquals(List.of(2L), ids(index.search("rep", null, 10)));
+		assertEquals(List.of(1L), ids(index.search("budget", "alice", 10)));
+		assertTrue(index.search("budget", "bob", 10).isEmpty());
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	void eventsDeliveredAfterTheDeleteDoNotReindexTheTask() {
+		eventBus.publish(List.of(new TaskEvent(TaskEvent.Type.DELETED, 3L, null, Set.of())));
+		// Committed before the delete but delivered after it, with a newer version than anything indexed
+		publish(TaskEvent.Type.UPDATED, task(3L, "Dashboard report", null, "carol", "carol", 99L));
+		publish(TaskEvent.Type.CREATED, task(3L, "Dashboard report", null, "carol", "carol", 1L));
+
+		assertTrue(index.search("dashboard", null, 10).isEmpty());
+		assertEquals(2, index.size());
+	}
+
+	private void publish(TaskEvent.Type type, TaskDTO task) {
+		eventBus.publish(List.of(new TaskEvent(type, task.getId(), task, Set.of())));
+	}
+
+	private static TaskDTO task(Long id, String title, String description, String owner, String assignee, Long version) {
+		return new TaskDTO(id, title, description, null, false, 0, owner, assignee, version, null, 0L);
+	}
+
+	private static List<Long> ids(List<TaskDTO> tasks) {
+		return tasks.stream().map(TaskDTO::getId).toList();
+	}
+}
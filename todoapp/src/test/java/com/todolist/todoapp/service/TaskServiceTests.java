@@ -0,0 +1,269 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskBatchOperation;
+import com.todolist.todoapp.dto.TaskBatchResult;
+import com.todolist.todoapp.dto.TaskChanges;
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskStats;
+import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.model.User;
+import com.todolist.todoapp.repository.TaskRepository;
+import com.todolist.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.todolist.todoapp.repository.SqlStatementAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:taskservicetests;DB_CLOSE_DELAY=-1")
+class TaskServiceTests {
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private TaskRepository taskRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private TaskStatsAggregator statsAggregator;
+	@Autowired
+	private TaskEventBus eventBus;
+
+	@BeforeEach
+	void users() {
+		if (userService.getByUsername("carol") == null) {
+			userService.registerUser("carol", "secret");
+			userService.registerUser("dave", "secret");
+			userService.registerUser("erin", "secret");
+			userService.registerUser("frank", "secret");
+			userService.registerUser("gina", "secret");
+		}
+	}
+
+	@Test
+	void changesSinceReportsUpsertsDeletesAndLostAccess() {
+		long erinSince = taskService.getChangesSince("erin", 0, null).version();
+		long frankSince = taskService.getChangesSince("frank", 0, null).version();
+
+		Task kept = taskService.createTask(dto("kept", "erin", "frank"), "erin");
+		Task removed = taskService.createTask(dto("removed", "erin", "erin"), "erin");
+		taskService.updateTask(kept.getId(), dto("kept, reassigned", null, "erin"), "erin");
+		taskService.deleteTask(removed.getId(), "erin");
+
+		TaskChanges erin = taskService.getChangesSince("erin", erinSince, null);
+		assertEquals(List.of(kept.getId()), erin.changed().stream().map(TaskDTO::getId).toList());
+		assertEquals("kept, reassigned", erin.changed().get(0).getTitle());
+		assertEquals(List.of(removed.getId()), erin.deleted());
+		assertFalse(erin.hasMore());
+
+		TaskChanges frank = taskService.getChangesSince("frank", frankSince, null);
+		assertTrue(frank.changed().isEmpty());
+		assertEquals(List.of(kept.getId()), frank.deleted());
+
+		TaskChanges caughtUp = taskService.getChangesSince("erin", erin.version(), null);
+		assertTrue(caughtUp.changed().isEmpty() && caughtUp.deleted().isEmpty());
+		assertEquals(erin.version(), caughtUp.version());
+	}
+
+	@Test
+	void changesArePagedByVersion() {
+		long since = taskService.getChangesSince("frank", 0, null).version();
+		for (int i = 0; i < 3; i++) {
+			taskService.createTask(dto("paged " + i, "frank", "frank"), "frank");
+		}
+
+		TaskChanges first = taskService.getChangesSince("frank", since, 2);
+		assertEquals(2, first.changed().size());
+		assertTrue(first.hasMore());
+		TaskChanges second = taskService.getChangesSince("frank", first.version(), 2);
+		assertEquals(List.of("paged 2"), second.changed().stream().map(TaskDTO::getTitle).toList());
+		assertFalse(second.hasMore());
+	}
+
+	@Test
+	void batchAppliesValidEntriesAndReportsTheRest() {
+		Task davesTask = taskService.createTask(dto("dave's", "dave", "dave"), "dave");
+		Task carolsTask = taskService.createTask(dto("carol's", "carol", "carol"), "carol");
+
+		List<TaskBatchOperation> operations = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			operations.add(op(TaskBatchOperation.Op.CREATE, null, dto("bulk " + i, "carol", "Dave")));
+		}
+		operations.add(op(TaskBatchOperation.Op.CREATE, null, dto("nobody", "carol", "nobody")));
+		operations.add(op(TaskBatchOperation.Op.DELETE, davesTask.getId(), null));
+		operations.add(op(TaskBatchOperation.Op.UPDATE, -1L, dto("missing", null, null)));
+		TaskDTO edit = dto("carol's, edited", null, null);
+		edit.setVersion(carolsTask.getVersion());
+		operations.add(op(TaskBatchOperation.Op.UPDATE, carolsTask.getId(), edit));
+
+		List<TaskEvent> published = new ArrayList<>();
+		Consumer<TaskEvent> listener = published::add;
+		eventBus.subscribe(listener);
+		List<TaskBatchResult> results;
+		try {
+			results = taskService.applyBatch(operations, "carol");
+		} finally {
+			eventBus.unsubscribe(listener);
+		}
+
+		assertEquals(124, results.size());
+		assertTrue(results.subList(0, 120).stream().allMatch(r -> r.getStatus() == 201 && r.getId() != null));
+		assertEquals(400, results.get(120).getStatus());
+		assertEquals(403, results.get(121).getStatus());
+		assertEquals(404, results.get(122).getStatus());
+		assertEquals(200, results.get(123).getStatus());
+		// Subscribers get the version the row was written with, so the next PATCH from it is not a conflict
+		Long stored = taskService.getTaskById(carolsTask.getId()).getVersion();
+		assertNotEquals(carolsTask.getVersion(), stored);
+		assertEquals(List.of(stored), published.stream().filter(e -> e.type() == TaskEvent.Type.UPDATED)
+				.map(e -> e.task().getVersion()).toList());
+		assertTrue(taskRepository.existsById(davesTask.getId()));
+		assertEquals("dave", taskRepository.findByAssignee(userService.getByUsername("dave")).get(1).getAssignee());
+	}
+
+	@Test
+	void statsFollowCreatesUpdatesAndDeletes() {
+		TaskDTO overdue = dto("overdue", "gina", "gina");
+		overdue.setDueDate(LocalDateTime.now().minusDays(1));
+		overdue.setPriority(2);
+		taskService.createTask(overdue, "gina");
+		Task done = taskService.createTask(dto("done soon", "frank", "gina"), "frank");
+		Task gone = taskService.createTask(dto("gone", "gina", "frank"), "gina");
+
+		TaskDTO completed = dto("done", null, null);
+		completed.setCompleted(true);
+		completed.setPriority(2);
+		taskService.updateTask(done.getId(), completed, "gina");
+		taskService.deleteTask(gone.getId(), "gina");
+
+		TaskStats stats = taskService.getStats("gina");
+		assertEquals(new TaskStats(2, 1, 1, 1, Map.of(2, 2L)), stats);
+		assertEquals(1, taskService.getStats("frank").completed());
+
+		// The counters match the database, so reconciliation leaves them as they are
+		statsAggregator.reconcile();
+		assertEquals(stats, taskService.getStats("gina"));
+	}
+
+	@Test
+	void reconcileCorrectsPerUserDriftAndLateEventsCannotReviveATask() {
+		userService.registerUser("ivan", "secret");
+		userService.registerUser("judy", "secret");
+		Task task = taskService.createTask(dto("handed over", "ivan", "ivan"), "ivan");
+
+		// Reassigned behind the aggregator's back: the overall count stays right, judy's does not
+		Task stored = taskRepository.findById(task.getId()).orElseThrow();
+		stored.setAssignee(userService.getByUsername("judy"));
+		taskRepository.save(stored);
+		assertEquals(0, taskService.getStats("judy").total());
+		statsAggregator.reconcile();
+		assertEquals(1, taskService.getStats("judy").total());
+		assertEquals(1, taskService.getStats("ivan").total());
+
+		// An update committed before the delete but delivered after it, whatever its change version
+		TaskDTO late = new TaskDTO(task.getId(), "handed over", null, null, false, 0, "ivan", "judy", Long.MAX_VALUE, null, 1L);
+		taskService.deleteTask(task.getId(), "ivan");
+		eventBus.publish(List.of(new TaskEvent(TaskEvent.Type.UPDATED, task.getId(), late, Set.of())));
+		assertEquals(0, taskService.getStats("ivan").total());
+		assertEquals(0, taskService.getStats("judy").total());
+	}
+
+	@Test
+	void overdueAdvancesWithTheClock() throws InterruptedException {
+		userService.registerUser("kate", "secret");
+		TaskDTO soon = dto("due in a moment", "kate", "kate");
+		soon.setDueDate(LocalDateTime.now().plusSeconds(1));
+		taskService.createTask(soon, "kate");
+		assertEquals(0, taskService.getStats("kate").overdue());
+
+		Thread.sleep(1100);
+		statsAggregator.advanceOverdue();
+		assertEquals(1, taskService.getStats("kate").overdue());
+		assertEquals(1, taskService.getStats("kate").open());
+	}
+
+	private static TaskBatchOperation op(TaskBatchOperation.Op type, Long id, TaskDTO task) {
+		TaskBatchOperation operation = new TaskBatchOperation();
+		operation.setOp(type);
+		operation.setId(id);
+		operation.setTask(task);
+		return operation;
+	}
+
+	@Test
+	void usersAndTasksAreReadFromTheSecondLevelCache() throws Exception {
+		userService.registerUser("Hank", "secret");
+		userService.getByUsername("hank");
+
+		assertEquals("Hank", assertStatementCount(0, () -> userService.getByUsername(" HANK ")).getUsername());
+		User hank = userRepository.lookupByUsername("hank").orElseThrow();
+		hank.setRole("ADMIN");
+		userRepository.save(hank);
+		assertEquals("ADMIN", assertStatementCount(0, () -> userService.getByUsername("hank")).getRole());
+
+		Task task = taskService.createTask(dto("cached", "hank", "hank"), "hank");
+		assertEquals("cached", assertStatementCount(0, () -> taskService.getTaskById(task.getId())).getTitle());
+		// The authorized UPDATE bypasses Hibernate and evicts the entry; the next read caches it again
+		taskService.updateTask(task.getId(), dto("cached, renamed", null, null), "hank");
+		assertEquals("cached, renamed", assertStatementCount(1, () -> taskService.getTaskById(task.getId())).getTitle());
+		assertEquals("cached, renamed", assertStatementCount(0, () -> taskService.getTaskById(task.getId())).getTitle());
+		taskService.deleteTask(task.getId(), "hank");
+		assertThrows(RuntimeException.class, () -> taskService.getTaskById(task.getId()));
+	}
+
+	@Test
+	void authorizedMutationsTellForbiddenFromMissing() {
+		Task task = taskService.createTask(dto("guarded", "carol", "dave"), "carol");
+
+		// Assignee may edit but not delete; anyone else may do neither
+		assertEquals("edited by dave", taskService.updateTask(task.getId(), dto("edited by dave", null, null), "dave").getTitle());
+		assertEquals("Forbidden", assertThrows(RuntimeException.class,
+				() -> taskService.updateTask(task.getId(), dto("edited by erin", null, null), "erin")).getMessage());
+		assertEquals("Forbidden", assertThrows(RuntimeException.class,
+				() -> taskService.deleteTask(task.getId(), "dave")).getMessage());
+		assertEquals("edited by dave", taskService.getTaskById(task.getId()).getTitle());
+
+		taskService.deleteTask(task.getId(), "carol");
+		assertEquals("Task not found", assertThrows(RuntimeException.class,
+				() -> taskService.updateTask(task.getId(), dto("too late", null, null), "carol")).getMessage());
+		assertEquals("Task not found", assertThrows(RuntimeException.class,
+				() -> taskService.deleteTask(task.getId(), "carol")).getMessage());
+	}
+
+	@Test
+	void authorizedUpdateKeepsAndChangesDueDates() {
+		LocalDateTime due = LocalDateTime.of(2031, 5, 1, 9, 30);
+		TaskDTO created = dto("dated", "carol", "dave");
+		created.setDueDate(due);
+		Task task = taskService.createTask(created, "carol");
+
+		TaskDTO edit = dto("dated, renamed", null, null);
+		edit.setDueDate(due);
+		assertEquals(due, taskService.updateTask(task.getId(), edit, "dave").getDueDate());
+		edit.setDueDate(due.plusDays(1));
+		taskService.updateTask(task.getId(), edit, "carol");
+
+		Task stored = taskService.getTaskById(task.getId());
+		assertEquals("dated, renamed", stored.getTitle());
+		assertEquals(due.plusDays(1), stored.getDueDate());
+	}
+
+	private static TaskDTO dto(String title, String owner, String assignee) {
+		TaskDTO dto = new TaskDTO();
+		dto.setTitle(title);
+		dto.setOwner(owner);
+		dto.setAssignee(assignee);
+		return dto;
+	}
+}
@@ -0,0 +1,170 @@
+package com.todolist.todoapp.service;
+
+import com.todolist.todoapp.dto.TaskBatchOperation;
+import com.todolist.todoapp.dto.TaskDTO;
+import com.todolist.todoapp.dto.TaskPatch;
+import com.todolist.todoapp.model.Task;
+import com.todolist.todoapp.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static com.todolist.todoapp.repository.SqlStatementAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.*;
+
+// The window and max delay are far out, so nothing is written until the test flushes
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:taskwritebehindtests;DB_CLOSE_DELAY=-1",
+		"tasks.write-behind.enabled=true",
+		"tasks.write-behind.window-ms=600000",
+		"tasks.write-behind.max-delay-ms=600000"
+})
+class TaskWriteBehindTests {
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private TaskRepository taskRepository;
+	@Autowired
+	private TaskWriteBehind writeBehind;
+	@Autowired
+	private TaskEventBus eventBus;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void users() {
+		if (userService.getByUsername("olga") == null) {
+			userService.registerUser("olga", "secret");
+			userService.registerUser("pete", "secret");
+		}
+	}
+
+	@Test
+	void rapidUpdatesAreAnsweredFromMemoryAndWrittenAsOneBatch() throws Exception {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			tasks.add(taskService.createTask(dto("toggled " + i), "olga"));
+		}
+		long baseVersion = tasks.get(0).getVersion();
+
+		for (Task task : tasks) {
+			long version = task.getVersion();
+			for (int i = 0; i < 10; i++) {
+				TaskPatch patch = toggle(i, version);
+				Task answered = assertStatementCount(0, () -> taskService.patchTask(task.getId(), patch, "olga"));
+				// All updates in a window land on the same next version
+				version = answered.getVersion();
+				assertEquals(i % 2 == 0, answered.isCompleted());
+			}
+			assertEquals(task.getVersion() + 1, version);
+		}
+		assertFalse(taskService.getTaskById(tasks.get(0).getId()).isCompleted());
+
+		// Thirty updates, one JDBC batch
+		assertStatementCount(1, () -> {
+			writeBehind.flush();
+			return null;
+		});
+		for (Task task : tasks) {
+			Task written = taskService.getTaskById(task.getId());
+			// Last toggle wins
+			assertFalse(written.isCompleted());
+			assertEquals(9, written.getPriority());
+			assertEquals(baseVersion + 1, written.getVersion());
+		}
+	}
+
+	@Test
+	void staleAndForeignUpdatesAreRejectedBeforeQueueing() {
+		Task task = taskService.createTask(dto("guarded"), "olga");
+		taskService.patchTask(task.getId(), toggle(0, task.getVersion()), "olga");
+
+		assertThrows(TaskConflictException.class,
+				() -> taskService.patchTask(task.getId(), toggle(1, task.getVersion()), "olga"));
+		assertEquals("Forbidden", assertThrows(RuntimeException.class,
+				() -> taskService.patchTask(task.getId(), toggle(1, null), "pete")).getMessage());
+		writeBehind.flush();
+		assertEquals(task.getVersion() + 1, taskService.getTaskById(task.getId()).getVersion());
+	}
+
+	@Test
+	void pendingChangesAreFlushedOnStopAndDroppedForDeletedTasks() {
+		Task kept = taskService.createTask(dto("kept"), "olga");
+		Task deleted = taskService.createTask(dto("deleted"), "olga");
+		taskService.patchTask(kept.getId(), toggle(0, null), "olga");
+		taskService.patchTask(deleted.getId(), toggle(0, null), "olga");
+		taskService.deleteTask(deleted.getId(), "olga");
+
+		writeBehind.stop();
+		try {
+			assertFalse(writeBehind.isActive());
+			assertTrue(taskService.getTaskById(kept.getId()).isCompleted());
+			assertFalse(taskRepository.existsById(deleted.getId()));
+		} finally {
+			writeBehind.start();
+		}
+	}
+
+	@Test
+	void acknowledgedChangesLostToAnotherWriterAreCountedAndCorrected() {
+		Task task = taskService.createTask(dto("contested"), "olga");
+		Task answered = taskService.patchTask(task.getId(), toggle(0, task.getVersion()), "olga");
+		assertTrue(answered.isCompleted());
+
+		// The batch endpoint writes the row directly, so the pending change no longer fits its version
+		TaskBatchOperation batchUpdate = new TaskBatchOperation();
+		batchUpdate.setOp(TaskBatchOperation.Op.UPDATE);
+		batchUpdate.setId(task.getId());
+		batchUpdate.setTask(dto("renamed by batch"));
+		assertEquals(200, taskService.applyBatch(List.of(batchUpdate), "olga").get(0).getStatus());
+
+		List<TaskEvent> corrections = new CopyOnWriteArrayList<>();
+		Consumer<TaskEvent> listener = event -> {
+			if (event.taskId().equals(task.getId())) corrections.add(event);
+		};
+		eventBus.subscribe(listener);
+		double droppedBefore = meterRegistry.counter("tasks.write_behind.dropped").count();
+		try {
+			writeBehind.flush();
+		} finally {
+			eventBus.unsubscribe(listener);
+		}
+
+		assertEquals(droppedBefore + 1, meterRegistry.counter("tasks.write_behind.dropped").count());
+		Task stored = taskService.getTaskById(task.getId());
+		assertEquals("renamed by batch", stored.getTitle());
+		assertFalse(stored.isCompleted());
+		// Clients told "completed" hear what the row really holds
+		assertEquals(1, corrections.size());
+		assertEquals(TaskEvent.Type.UPDATED, corrections.get(0).type());
+		assertEquals("renamed by batch", corrections.get(0).task().getTitle());
+		assertFalse(corrections.get(0).task().isCompleted());
+		assertTrue(corrections.get(0).userIds().contains(userService.getByUsername("olga").getId()));
+	}
+
+	private static TaskPatch toggle(int i, Long version) {
+		TaskPatch patch = new TaskPatch();
+		patch.setCompleted(i % 2 == 0);
+		patch.setPriority(i);
+		patch.setVersion(version);
+		return patch;
+	}
+
+	private static TaskDTO dto(String title) {
+		TaskDTO dto = new TaskDTO();
+		dto.setTitle(title);
+		dto.setOwner("olga");
+		dto.setAssignee("olga");
+		return dto;
+	}
+}
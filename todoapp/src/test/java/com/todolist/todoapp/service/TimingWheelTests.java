@@ -0,0 +1,68 @@
+package com.todolist.todoapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTests {
+
+	@Test
+	void timersFireAtTheirTickAcrossRevolutions() {
+		TimingWheel<String> wheel = new TimingWheel<>(8, 100);
+		wheel.schedule(1, 103, "soon");
+		wheel.schedule(2, 111, "same bucket, next round");
+		wheel.schedule(3, 150, "many rounds out");
+		List<Long> fired = new ArrayList<>();
+
+		wheel.advance(110, (key, value) -> fired.add(key));
+		assertEquals(List.of(1L), fired);
+		wheel.advance(111, (key, value) -> fired.add(key));
+		assertEquals(List.of(1L, 2L), fired);
+		wheel.advance(149, (key, value) -> fired.add(key));
+		assertEquals(1, wheel.size());
+		wheel.advance(150, (key, value) -> fired.add(key));
+		assertEquals(List.of(1L, 2L, 3L), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void rescheduleReplacesAndCancelRemoves() {
+		TimingWheel<String> wheel = new TimingWheel<>(8, 0);
+		wheel.schedule(1, 5, "first");
+		wheel.schedule(1, 20, "moved");
+		wheel.schedule(2, 6, "cancelled");
+		assertEquals("cancelled", wheel.cancel(2));
+		assertNull(wheel.cancel(2));
+		// Past deadlines fire on the next advance
+		wheel.schedule(3, -4, "late");
+		List<String> fired = new ArrayList<>();
+
+		wheel.advance(10, (key, value) -> fired.add(value));
+		assertEquals(List.of("late"), fired);
+		assertEquals("moved", wheel.get(1));
+	}
+
+	@Test
+	void aLongPauseFiresEverythingDueOnceAndHandlersCanReschedule() {
+		TimingWheel<String> wheel = new TimingWheel<>(4, 0);
+		for (long key = 1; key <= 20; key++) {
+			wheel.schedule(key, key, "first");
+		}
+		List<Long> fired = new ArrayList<>();
+
+		wheel.advance(1000, (key, value) -> {
+			fired.add(key);
+			if (value.equals("first")) {
+				wheel.schedule(key, 2000 + key, "second");
+			}
+		});
+		assertEquals(20, fired.size());
+		assertEquals(20, wheel.size());
+		assertEquals(1000, wheel.now());
+		wheel.advance(3000, (key, value) -> fired.add(key));
+		assertEquals(40, fired.size());
+	}
+}